@@ -0,0 +1,63 @@
+package com.bclay.eaglebank_api.benchmark;
+
+import com.bclay.eaglebank_api.EaglebankApiApplication;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import com.bclay.eaglebank_api.service.AuthenticatedUser;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application against a fresh in-memory database, without a web server for benchmarks that exercise
+ * services and repositories, or on a random port for load benchmarks.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return builder().web(WebApplicationType.NONE).run();
+    }
+
+    static ConfigurableApplicationContext startServer(List<String> profiles, String... properties) {
+        return builder()
+                .web(WebApplicationType.SERVLET)
+                .profiles(profiles.toArray(String[]::new))
+                .properties("server.port=0")
+                .properties(properties)
+                .run();
+    }
+
+    private static SpringApplicationBuilder builder() {
+        return new SpringApplicationBuilder(EaglebankApiApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.bclay.eaglebank_api=WARN");
+    }
+
+    static User createUser(ConfigurableApplicationContext context) {
+        String name = "bench-" + UUID.randomUUID();
+        return context.getBean(UserRepository.class).save(new User(null, name + "@example.com", name, "hash"));
+    }
+
+    /**
+     * Authenticates the calling thread; JMH runs thread-scoped setup on the worker thread itself.
+     */
+    static void authenticate(User user) {
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getUsername(), "",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
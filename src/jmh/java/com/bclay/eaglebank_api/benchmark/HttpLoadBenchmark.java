@@ -0,0 +1,130 @@
+package com.bclay.eaglebank_api.benchmark;
+
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import com.bclay.eaglebank_api.service.AuthenticatedUser;
+import com.bclay.eaglebank_api.service.JwtUtil;
+import com.bclay.eaglebank_api.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end HTTP load against a running server, comparing Tomcat's platform worker pool with the
+ * virtual-threads profile. The default 256 client threads exceed Tomcat's 200 workers; raise -t further to
+ * see where each mode saturates. Virtual threads need a Java 21 runtime (-Pjava21); on 17 both modes are the same.
+ * The login rate limiter is opened up so the benchmark measures hashing and queueing, not rejections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(1)
+public class HttpLoadBenchmark {
+
+    private static final String PASSWORD = "bench-password";
+
+    @Param({"platform", "virtual-threads"})
+    public String threadMode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest listTransactions;
+    private HttpRequest login;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.startServer(
+                "virtual-threads".equals(threadMode) ? List.of("virtual-threads") : List.of(),
+                "eaglebank.security.login.rate-limit.username-capacity=1000000",
+                "eaglebank.security.login.rate-limit.address-capacity=1000000",
+                "eaglebank.security.login.queue-capacity=1000");
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+        String name = "load-" + UUID.randomUUID();
+        User owner = context.getBean(UserService.class).createUser(new User(null, name + "@example.com", name, PASSWORD));
+        BankAccount account = context.getBean(BankAccountRepository.class)
+                .save(new BankAccount(null, name, "CURRENT", 0L, owner));
+        List<Transaction> history = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 200; i++) {
+            history.add(new Transaction(null, TransactionType.DEPOSIT, 100L + i, now.minusMinutes(i), account));
+        }
+        context.getBean(TransactionRepository.class).saveAll(history);
+
+        String token = context.getBean(JwtUtil.class).generateToken(new AuthenticatedUser(owner.getId(),
+                owner.getUsername(), "", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        listTransactions = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/accounts/" + account.getId() + "/transactions"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        login = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + name + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // JDBC-bound: JWT auth from claims, one ownership query and one page query
+    @Benchmark
+    public int listTransactions() throws IOException, InterruptedException {
+        return send(listTransactions);
+    }
+
+    // CPU-bound on BCrypt, where virtual threads are not expected to help
+    @Benchmark
+    public int login() throws IOException, InterruptedException {
+        return send(login);
+    }
+
+    // a login storm next to ordinary reads: read throughput should hold up while logins queue on their own pool
+    @Benchmark
+    @Group("loginStorm")
+    @GroupThreads(192)
+    public int loginStorm_login() throws IOException, InterruptedException {
+        int status = client.send(login, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200 && status != 429) {
+            throw new IllegalStateException("Unexpected status " + status + " from " + login.uri());
+        }
+        return status;
+    }
+
+    @Benchmark
+    @Group("loginStorm")
+    @GroupThreads(64)
+    public int loginStorm_listTransactions() throws IOException, InterruptedException {
+        return send(listTransactions);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Unexpected status " + status + " from " + request.uri());
+        }
+        return status;
+    }
+}
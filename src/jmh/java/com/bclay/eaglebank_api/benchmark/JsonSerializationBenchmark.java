@@ -0,0 +1,93 @@
+package com.bclay.eaglebank_api.benchmark;
+
+import com.bclay.eaglebank_api.model.AccountResponse;
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionPage;
+import com.bclay.eaglebank_api.model.TransactionResponse;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization with an ObjectMapper configured the way Spring MVC builds it, with and without the
+ * Blackbird module: detached entities, as the controllers used to render, against the response records they
+ * render now. Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"50"})
+    public int pageSize;
+
+    @Param({"false", "true"})
+    public boolean blackbird;
+
+    private ObjectWriter writer;
+    private BankAccount account;
+    private AccountResponse accountResponse;
+    private List<Transaction> entityPage;
+    private TransactionPage responsePage;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper objectMapper = builder.build();
+        writer = objectMapper.writer();
+
+        User owner = new User(UUID.randomUUID(), "bench@example.com", "bench", "hash");
+        account = new BankAccount(UUID.randomUUID(), "12345678", "CURRENT", 1_234_567L, owner);
+        accountResponse = AccountResponse.of(account);
+
+        entityPage = new ArrayList<>(pageSize);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < pageSize; i++) {
+            TransactionType type = i % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+            entityPage.add(new Transaction(UUID.randomUUID(), type, 100L + i, now.minusMinutes(i), account));
+        }
+        responsePage = new TransactionPage(entityPage.stream().map(TransactionResponse::of).toList(), "cursor");
+
+        System.out.printf("%naccount: %d bytes as entity, %d as response; page of %d: %d bytes as entities, %d as response%n",
+                writer.writeValueAsBytes(account).length, writer.writeValueAsBytes(accountResponse).length, pageSize,
+                writer.writeValueAsBytes(entityPage).length, writer.writeValueAsBytes(responsePage).length);
+    }
+
+    @Benchmark
+    public byte[] serializeAccount_entity() throws JsonProcessingException {
+        return writer.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public byte[] serializeAccount_response() throws JsonProcessingException {
+        return writer.writeValueAsBytes(accountResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionPage_entities() throws JsonProcessingException {
+        return writer.writeValueAsBytes(entityPage);
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionPage_response() throws JsonProcessingException {
+        return writer.writeValueAsBytes(responsePage);
+    }
+}
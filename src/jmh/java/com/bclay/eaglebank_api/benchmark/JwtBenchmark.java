@@ -0,0 +1,67 @@
+package com.bclay.eaglebank_api.benchmark;
+
+import com.bclay.eaglebank_api.service.AuthenticatedUser;
+import com.bclay.eaglebank_api.service.JwtUtil;
+import com.bclay.eaglebank_api.service.TokenRevocationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification on the request path. The uncached variants size the verified-token cache
+ * to zero, so every call pays for the HMAC check and claims parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil cachingJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private AuthenticatedUser user;
+    private String cachingToken;
+    private String uncachedToken;
+
+    @Setup
+    public void setUp() {
+        TokenRevocationService revocations = new TokenRevocationService(100_000);
+        cachingJwtUtil = new JwtUtil(10_000, Duration.ofMinutes(15), revocations);
+        uncachedJwtUtil = new JwtUtil(0, Duration.ofMinutes(15), revocations);
+        user = new AuthenticatedUser(UUID.randomUUID(), "bench-user", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        cachingToken = cachingJwtUtil.generateToken(user);
+        uncachedToken = uncachedJwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingJwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken_cached() {
+        return cachingJwtUtil.validateToken(cachingToken);
+    }
+
+    @Benchmark
+    public boolean validateToken_uncached() {
+        return uncachedJwtUtil.validateToken(uncachedToken);
+    }
+
+    @Benchmark
+    public Optional<AuthenticatedUser> authenticate_cached() {
+        return cachingJwtUtil.authenticate(cachingToken);
+    }
+
+    @Benchmark
+    public Optional<AuthenticatedUser> authenticate_uncached() {
+        return uncachedJwtUtil.authenticate(uncachedToken);
+    }
+}
@@ -0,0 +1,91 @@
+package com.bclay.eaglebank_api.benchmark;
+
+import com.bclay.eaglebank_api.model.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Fills a file-backed copy of the transaction table with random (v4) or time-ordered (v7) primary keys and reports
+ * the time taken. The table's disk footprint, primary-key index included, is printed after each run. Random keys
+ * scatter inserts across the whole index; time-ordered keys append to its right-hand edge.
+ * <pre>
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.includes=PrimaryKeyInsertBenchmark
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.includes=PrimaryKeyInsertBenchmark -Djmh.args="-p rows=1000000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(1)
+public class PrimaryKeyInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    public enum Ids { RANDOM, TIME_ORDERED }
+
+    @Param({"RANDOM", "TIME_ORDERED"})
+    public Ids ids;
+
+    @Param("10000000")
+    public int rows;
+
+    private Path directory;
+    private Connection connection;
+
+    @Setup(Level.Iteration)
+    public void createTable() throws IOException, SQLException {
+        directory = Files.createTempDirectory("pk-benchmark");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory + "/bench", "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table transaction (id uuid primary key, type varchar(32) not null, " +
+                    "amount bigint not null, timestamp timestamp(6) not null, account_id uuid not null)");
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    public void insert() throws SQLException {
+        UUID accountId = UUID.randomUUID();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into transaction (id, type, amount, timestamp, account_id) values (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, ids == Ids.RANDOM ? UUID.randomUUID() : TimeOrderedIdGenerator.next());
+                insert.setString(2, "DEPOSIT");
+                insert.setLong(3, i);
+                insert.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+                insert.setObject(5, accountId);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportAndDrop() throws IOException, SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet used = statement.executeQuery("call disk_space_used('TRANSACTION')")) {
+            used.next();
+            System.out.printf("%n%s keys, %,d rows: table and indexes use %,d bytes%n", ids, rows, used.getLong(1));
+        }
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
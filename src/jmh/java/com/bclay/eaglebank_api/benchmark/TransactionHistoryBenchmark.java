@@ -0,0 +1,100 @@
+package com.bclay.eaglebank_api.benchmark;
+
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionPage;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import com.bclay.eaglebank_api.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading an account's history as it grows: the unbounded {@code findByBankAccountId} load against the
+ * first keyset page served by {@link TransactionService#getTransactions}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionHistoryBenchmark {
+
+    private static final int INSERT_BATCH = 5_000;
+
+    @Param({"100", "10000", "100000"})
+    public int historySize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private TransactionService transactionService;
+    private User owner;
+    private UUID accountId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start();
+        transactionRepository = context.getBean(TransactionRepository.class);
+        transactionService = context.getBean(TransactionService.class);
+        owner = BenchmarkApplication.createUser(context);
+        accountId = context.getBean(BankAccountRepository.class)
+                .save(new BankAccount(null, "history-" + UUID.randomUUID(), "CURRENT", 0L, owner)).getId();
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    // plain JDBC batches, seeding 100k rows through JPA would dominate the trial
+    private void seed(JdbcTemplate jdbc) {
+        LocalDateTime start = LocalDateTime.now().minusSeconds(historySize);
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < historySize; i++) {
+            TransactionType type = i % 3 == 0 ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT;
+            rows.add(new Object[]{UUID.randomUUID(), type.name(), 100L + i % 1_000,
+                    Timestamp.valueOf(start.plusSeconds(i)), accountId});
+            if (rows.size() == INSERT_BATCH || i == historySize - 1) {
+                jdbc.batchUpdate("insert into transaction (id, type, amount, timestamp, account_id) values (?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        @Setup(Level.Trial)
+        public void authenticate(TransactionHistoryBenchmark benchmark) {
+            BenchmarkApplication.authenticate(benchmark.owner);
+        }
+
+        @TearDown(Level.Trial)
+        public void clear() {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public List<Transaction> findByBankAccountId() {
+        return transactionRepository.findByBankAccountId(accountId);
+    }
+
+    @Benchmark
+    public TransactionPage getTransactions_firstPage(Caller caller) {
+        return transactionService.getTransactions(accountId, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,83 @@
+package com.bclay.eaglebank_api.benchmark;
+
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TransactionService#createTransaction} against H2. Each benchmark thread posts to its own account,
+ * or all threads to one shared account to measure contention on the balance row; run with -t N to scale.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionPostingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Application {
+
+        ConfigurableApplicationContext context;
+        TransactionService transactionService;
+        BankAccountRepository bankAccountRepository;
+        User owner;
+        UUID sharedAccountId;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = BenchmarkApplication.start();
+            transactionService = context.getBean(TransactionService.class);
+            bankAccountRepository = context.getBean(BankAccountRepository.class);
+            owner = BenchmarkApplication.createUser(context);
+            sharedAccountId = bankAccountRepository.save(
+                    new BankAccount(null, "shared-" + UUID.randomUUID(), "CURRENT", 0L, owner)).getId();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Poster {
+
+        UUID ownAccountId;
+        Transaction deposit;
+
+        @Setup(Level.Trial)
+        public void authenticate(Application app) {
+            BenchmarkApplication.authenticate(app.owner);
+            ownAccountId = app.bankAccountRepository.save(
+                    new BankAccount(null, "own-" + UUID.randomUUID(), "CURRENT", 0L, app.owner)).getId();
+            deposit = new Transaction();
+            deposit.setType(TransactionType.DEPOSIT);
+            deposit.setAmount(1);
+        }
+
+        @TearDown(Level.Trial)
+        public void clear() {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Transaction createTransaction_ownAccount(Application app, Poster poster) {
+        return app.transactionService.createTransaction(poster.ownAccountId, poster.deposit);
+    }
+
+    @Benchmark
+    public Transaction createTransaction_sharedAccount(Application app, Poster poster) {
+        return app.transactionService.createTransaction(app.sharedAccountId, poster.deposit);
+    }
+}
@@ -0,0 +1,104 @@
+package com.bclay.eaglebank_api.benchmark;
+
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.TransferRequest;
+import com.bclay.eaglebank_api.model.TransferResponse;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TransactionService#transfer} against H2. Each benchmark thread moves money back and forth between its own
+ * pair of accounts, or all threads between one shared pair in both directions. Run with -t 1, 2, 4, ... up to the
+ * core count: disjoint pairs should scale with threads, the shared pair should not.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferBenchmark {
+
+    private static final long OPENING_BALANCE = 1_000_000_000L;
+
+    @State(Scope.Benchmark)
+    public static class Application {
+
+        ConfigurableApplicationContext context;
+        TransactionService transactionService;
+        BankAccountRepository bankAccountRepository;
+        User owner;
+        UUID sharedA;
+        UUID sharedB;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = BenchmarkApplication.start();
+            transactionService = context.getBean(TransactionService.class);
+            bankAccountRepository = context.getBean(BankAccountRepository.class);
+            owner = BenchmarkApplication.createUser(context);
+            sharedA = account("shared-a-");
+            sharedB = account("shared-b-");
+        }
+
+        UUID account(String prefix) {
+            return bankAccountRepository.save(
+                    new BankAccount(null, prefix + UUID.randomUUID(), "CURRENT", OPENING_BALANCE, owner)).getId();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Transferrer {
+
+        TransferRequest toOwnB;
+        TransferRequest toOwnA;
+        TransferRequest toSharedB;
+        TransferRequest toSharedA;
+        UUID ownA;
+        UUID ownB;
+        boolean forward;
+
+        @Setup(Level.Trial)
+        public void authenticate(Application app) {
+            BenchmarkApplication.authenticate(app.owner);
+            ownA = app.account("own-a-");
+            ownB = app.account("own-b-");
+            toOwnB = new TransferRequest(ownB, 1);
+            toOwnA = new TransferRequest(ownA, 1);
+            toSharedB = new TransferRequest(app.sharedB, 1);
+            toSharedA = new TransferRequest(app.sharedA, 1);
+        }
+
+        @TearDown(Level.Trial)
+        public void clear() {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public TransferResponse transfer_disjointPairs(Application app, Transferrer transferrer) {
+        transferrer.forward = !transferrer.forward;
+        return transferrer.forward
+                ? app.transactionService.transfer(transferrer.ownA, transferrer.toOwnB)
+                : app.transactionService.transfer(transferrer.ownB, transferrer.toOwnA);
+    }
+
+    @Benchmark
+    public TransferResponse transfer_sharedPair(Application app, Transferrer transferrer) {
+        transferrer.forward = !transferrer.forward;
+        return transferrer.forward
+                ? app.transactionService.transfer(app.sharedA, transferrer.toSharedB)
+                : app.transactionService.transfer(app.sharedB, transferrer.toSharedA);
+    }
+}
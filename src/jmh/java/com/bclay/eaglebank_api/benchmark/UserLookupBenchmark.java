@@ -0,0 +1,73 @@
+package com.bclay.eaglebank_api.benchmark;
+
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The username lookup behind every authenticated request and ownership check, as the user table grows. Backed by
+ * the unique index on {@code users.username}, its cost should stay flat from a thousand users to a million.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    private static final int INSERT_BATCH = 5_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int userCount;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start();
+        userRepository = context.getBean(UserRepository.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    // plain JDBC batches, seeding a million users through JPA would dominate the trial
+    private void seed(JdbcTemplate jdbc) {
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < userCount; i++) {
+            rows.add(new Object[]{UUID.randomUUID(), username(i) + "@example.com", username(i), "hash"});
+            if (rows.size() == INSERT_BATCH || i == userCount - 1) {
+                jdbc.batchUpdate("insert into users (id, email, username, password) values (?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    private static String username(int i) {
+        return "user-" + i;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> findByUsername() {
+        return userRepository.findByUsername(username(ThreadLocalRandom.current().nextInt(userCount)));
+    }
+
+    @Benchmark
+    public Optional<User> findByUsername_missing() {
+        return userRepository.findByUsername("missing-" + ThreadLocalRandom.current().nextInt(userCount));
+    }
+}
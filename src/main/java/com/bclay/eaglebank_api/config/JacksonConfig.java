@@ -0,0 +1,16 @@
+package com.bclay.eaglebank_api.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Boot registers every Module bean with the shared ObjectMapper, so MVC, idempotency replays and exports all use it
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,56 @@
+package com.bclay.eaglebank_api.config;
+
+import com.bclay.eaglebank_api.service.AccountCache;
+import com.bclay.eaglebank_api.service.IdempotencyService;
+import com.bclay.eaglebank_api.service.JwtUtil;
+import com.bclay.eaglebank_api.service.PrincipalCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Supplier;
+
+@Configuration
+public class MetricsConfig {
+
+    // the in-process caches are plain Caffeine caches rather than Spring caches, so bind their stats by hand
+    @Bean
+    public MeterBinder securityCacheMetrics(PrincipalCache principalCache, JwtUtil jwtUtil) {
+        return registry -> {
+            bindCacheStats(registry, "principals", principalCache::stats);
+            bindCacheStats(registry, "verified-tokens", jwtUtil::verifiedTokenCacheStats);
+        };
+    }
+
+    @Bean
+    public MeterBinder idempotencyCacheMetrics(IdempotencyService idempotencyService) {
+        return registry -> bindCacheStats(registry, "idempotency", idempotencyService::stats);
+    }
+
+    @Bean
+    public MeterBinder accountCacheMetrics(AccountCache accountCache) {
+        return registry -> {
+            bindCacheStats(registry, "accounts", accountCache::accountStats);
+            bindCacheStats(registry, "user-accounts", accountCache::userAccountStats);
+        };
+    }
+
+    private static void bindCacheStats(MeterRegistry registry, String cache, Supplier<CacheStats> stats) {
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().hitCount())
+                .tags("cache", cache, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().missCount())
+                .tags("cache", cache, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", stats, s -> s.get().evictionCount())
+                .tags("cache", cache)
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", stats, s -> s.get().hitRate())
+                .tags("cache", cache)
+                .register(registry);
+    }
+}
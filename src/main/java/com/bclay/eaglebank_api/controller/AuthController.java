@@ -3,29 +3,42 @@ package com.bclay.eaglebank_api.controller;
 import com.bclay.eaglebank_api.model.AuthRequest;
 import com.bclay.eaglebank_api.model.AuthResponse;
 import com.bclay.eaglebank_api.service.JwtUtil;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import com.bclay.eaglebank_api.service.LoginService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/v1/auth")
 public class AuthController {
 
-    private final AuthenticationManager authManager;
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final LoginService loginService;
     private final JwtUtil jwtUtil;
 
-    public AuthController(AuthenticationManager authManager, JwtUtil jwtUtil) {
-        this.authManager = authManager;
+    public AuthController(LoginService loginService, JwtUtil jwtUtil) {
+        this.loginService = loginService;
         this.jwtUtil = jwtUtil;
     }
 
+    // completes asynchronously on the login pool, the request thread is released while BCrypt runs
     @PostMapping("/login")
-    public AuthResponse login(@RequestBody AuthRequest request) {
-        Authentication authentication = authManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username(), request.password())
-        );
-        String token = jwtUtil.generateToken(request.username());
-        return new AuthResponse(token);
+    public CompletableFuture<AuthResponse> login(@RequestBody AuthRequest request, HttpServletRequest servletRequest) {
+        return loginService.login(request, servletRequest.getRemoteAddr());
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        // the same check as JwtFilter.extractToken
+        if (!StringUtils.hasText(authorization) || !authorization.startsWith(BEARER_PREFIX)) {
+            throw new IllegalArgumentException("Authorization header must carry a Bearer token");
+        }
+        jwtUtil.revokeToken(authorization.substring(BEARER_PREFIX.length()));
+        return ResponseEntity.noContent().build();
     }
 }
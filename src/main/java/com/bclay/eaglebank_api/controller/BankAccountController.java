@@ -1,13 +1,21 @@
 package com.bclay.eaglebank_api.controller;
 
+import com.bclay.eaglebank_api.model.AccountResponse;
+import com.bclay.eaglebank_api.model.AccountSummary;
 import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.Money;
+import com.bclay.eaglebank_api.service.AccountAggregateService;
 import com.bclay.eaglebank_api.service.BankAccountService;
+import com.bclay.eaglebank_api.service.IdempotencyService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,42 +26,71 @@ public class BankAccountController {
     private static final Logger logger = LoggerFactory.getLogger(BankAccountController.class);
 
     private final BankAccountService bankAccountService;
+    private final IdempotencyService idempotencyService;
+    private final AccountAggregateService accountAggregateService;
 
-    public BankAccountController(BankAccountService bankAccountService) {
+    public BankAccountController(BankAccountService bankAccountService, IdempotencyService idempotencyService,
+                                 AccountAggregateService accountAggregateService) {
         this.bankAccountService = bankAccountService;
+        this.idempotencyService = idempotencyService;
+        this.accountAggregateService = accountAggregateService;
     }
 
     @PostMapping
-    public ResponseEntity<BankAccount> createAccount(@Valid @RequestBody BankAccount account) {
+    public ResponseEntity<AccountResponse> createAccount(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                         @Valid @RequestBody BankAccount account) {
         logger.info("Request to create a new bank account");
+        if (idempotencyKey == null) {
+            return openAccount(account);
+        }
+        return idempotencyService.execute(idempotencyKey, "POST /v1/accounts", account, AccountResponse.class,
+                () -> openAccount(account));
+    }
+
+    private ResponseEntity<AccountResponse> openAccount(BankAccount account) {
         BankAccount created = bankAccountService.createAccount(account);
         logger.info("Bank account created with ID: {}", created.getId());
-        return ResponseEntity.ok(created);
+        return ResponseEntity.ok(AccountResponse.of(created));
     }
 
     @GetMapping
-    public ResponseEntity<List<BankAccount>> getAccountsForCurrentUser() {
+    public ResponseEntity<List<AccountResponse>> getAccountsForCurrentUser() {
         logger.info("Fetching all bank accounts for the authenticated user");
         List<BankAccount> accounts = bankAccountService.getAccountsForCurrentUser();
         logger.info("Found {} accounts for current user", accounts.size());
-        return ResponseEntity.ok(accounts);
+        List<AccountResponse> responses = new ArrayList<>(accounts.size());
+        for (BankAccount account : accounts) {
+            responses.add(AccountResponse.of(account));
+        }
+        return ResponseEntity.ok(responses);
     }
 
     @GetMapping("/{accountId}")
-    public ResponseEntity<BankAccount> getAccount(@PathVariable UUID accountId) {
+    public ResponseEntity<AccountResponse> getAccount(@PathVariable UUID accountId) {
         logger.info("Fetching bank account with ID: {}", accountId);
         BankAccount account = bankAccountService.getAccountById(accountId);
-        logger.info("Retrieved bank account ID: {}, balance: {}", account.getId(), account.getBalance());
-        return ResponseEntity.ok(account);
+        logger.info("Retrieved bank account ID: {}, balance: {}", account.getId(), Money.format(account.getBalance()));
+        return ResponseEntity.ok(AccountResponse.of(account));
+    }
+
+    @GetMapping("/{accountId}/summary")
+    public ResponseEntity<AccountSummary> getSummary(@PathVariable UUID accountId,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                     @RequestParam(required = false) AccountSummary.Period period) {
+        logger.info("Fetching {} summary for account ID: {} from {} to {}", period, accountId, from, to);
+        AccountSummary summary = accountAggregateService.summarize(accountId, from, to, period);
+        logger.info("Returning {} summary buckets for account ID: {}", summary.buckets().size(), accountId);
+        return ResponseEntity.ok(summary);
     }
 
     @PatchMapping("/{accountId}")
-    public ResponseEntity<BankAccount> updateAccount(@PathVariable UUID accountId,
-                                                     @RequestBody BankAccount updatedAccount) {
+    public ResponseEntity<AccountResponse> updateAccount(@PathVariable UUID accountId,
+                                                         @RequestBody BankAccount updatedAccount) {
         logger.info("Request to update bank account with ID: {}", accountId);
         BankAccount savedAccount = bankAccountService.updateAccount(accountId, updatedAccount);
         logger.info("Bank account with ID: {} updated successfully", savedAccount.getId());
-        return ResponseEntity.ok(savedAccount);
+        return ResponseEntity.ok(AccountResponse.of(savedAccount));
     }
 
     @DeleteMapping("/{accountId}")
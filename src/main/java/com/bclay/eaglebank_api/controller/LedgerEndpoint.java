@@ -0,0 +1,33 @@
+package com.bclay.eaglebank_api.controller;
+
+import com.bclay.eaglebank_api.model.LedgerVerificationReport;
+import com.bclay.eaglebank_api.service.LedgerService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ledger audit over actuator: GET /actuator/ledger?full=true verifies every account, POST takes snapshots now.
+ */
+@Component
+@Endpoint(id = "ledger")
+public class LedgerEndpoint {
+
+    private final LedgerService ledgerService;
+
+    public LedgerEndpoint(LedgerService ledgerService) {
+        this.ledgerService = ledgerService;
+    }
+
+    @ReadOperation
+    public LedgerVerificationReport verify(@Nullable Boolean full) {
+        return ledgerService.verifyAll(Boolean.TRUE.equals(full));
+    }
+
+    @WriteOperation
+    public void snapshot() {
+        ledgerService.snapshotAll();
+    }
+}
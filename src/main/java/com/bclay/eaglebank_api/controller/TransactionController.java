@@ -1,55 +1,135 @@
 package com.bclay.eaglebank_api.controller;
 
+import com.bclay.eaglebank_api.model.BatchPostingRequest;
+import com.bclay.eaglebank_api.model.BatchPostingResponse;
+import com.bclay.eaglebank_api.model.ExportFormat;
+import com.bclay.eaglebank_api.model.Money;
 import com.bclay.eaglebank_api.model.Transaction;
-import com.bclay.eaglebank_api.service.BankAccountService;
+import com.bclay.eaglebank_api.model.TransactionPage;
+import com.bclay.eaglebank_api.model.TransactionResponse;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.TransferRequest;
+import com.bclay.eaglebank_api.model.TransferResponse;
+import com.bclay.eaglebank_api.service.AuthorizationContext;
+import com.bclay.eaglebank_api.service.IdempotencyService;
+import com.bclay.eaglebank_api.service.TransactionExportService;
 import com.bclay.eaglebank_api.service.TransactionService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @RestController
-@RequestMapping("/v1/accounts/{accountId}/transactions")
+@RequestMapping("/v1/accounts")
 public class TransactionController {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
 
     private final TransactionService transactionService;
-    private final BankAccountService bankAccountService;
+    private final AuthorizationContext authorizationContext;
+    private final TransactionExportService transactionExportService;
+    private final IdempotencyService idempotencyService;
 
-    public TransactionController(TransactionService transactionService, BankAccountService bankAccountService) {
+    public TransactionController(TransactionService transactionService, AuthorizationContext authorizationContext,
+                                 TransactionExportService transactionExportService,
+                                 IdempotencyService idempotencyService) {
         this.transactionService = transactionService;
-        this.bankAccountService = bankAccountService;
+        this.authorizationContext = authorizationContext;
+        this.transactionExportService = transactionExportService;
+        this.idempotencyService = idempotencyService;
     }
 
-    @PostMapping
-    public ResponseEntity<Transaction> createTransaction(@PathVariable UUID accountId,
-                                                         @Valid @RequestBody Transaction transaction) {
+    @PostMapping("/{accountId}/transactions")
+    public ResponseEntity<TransactionResponse> createTransaction(@PathVariable UUID accountId,
+                                                                 @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                                 @Valid @RequestBody Transaction transaction) {
         logger.info("Request to create transaction for account ID: {}", accountId);
+        if (idempotencyKey == null) {
+            return postTransaction(accountId, transaction);
+        }
+        return idempotencyService.execute(idempotencyKey, "POST /v1/accounts/" + accountId + "/transactions",
+                transaction, TransactionResponse.class, () -> postTransaction(accountId, transaction));
+    }
+
+    private ResponseEntity<TransactionResponse> postTransaction(UUID accountId, Transaction transaction) {
         Transaction created = transactionService.createTransaction(accountId, transaction);
         logger.info("Transaction created with ID: {}", created.getId());
-        return ResponseEntity.ok(created);
+        return ResponseEntity.ok(TransactionResponse.of(created));
+    }
+
+    @PostMapping("/{accountId}/transfers")
+    public ResponseEntity<TransferResponse> transfer(@PathVariable UUID accountId,
+                                                     @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                     @RequestBody TransferRequest request) {
+        logger.info("Request to transfer from account ID: {} to account ID: {}", accountId, request.toAccountId());
+        if (idempotencyKey == null) {
+            return postTransfer(accountId, request);
+        }
+        return idempotencyService.execute(idempotencyKey, "POST /v1/accounts/" + accountId + "/transfers",
+                request, TransferResponse.class, () -> postTransfer(accountId, request));
+    }
+
+    private ResponseEntity<TransferResponse> postTransfer(UUID accountId, TransferRequest request) {
+        TransferResponse transfer = transactionService.transfer(accountId, request);
+        logger.info("Transfer posted as transactions {} and {}", transfer.debit().id(), transfer.credit().id());
+        return ResponseEntity.ok(transfer);
     }
 
-    @GetMapping
-    public ResponseEntity<List<Transaction>> getAllTransactions(@PathVariable UUID accountId) {
-        logger.info("Fetching all transactions for account ID: {}", accountId);
-        bankAccountService.getAccountById(accountId); // performs ownership check
-        List<Transaction> transactions = transactionService.getAllTransactions(accountId);
-        logger.info("Found {} transactions for account ID: {}", transactions.size(), accountId);
-        return ResponseEntity.ok(transactions);
+    @PostMapping("/transactions/batch")
+    public ResponseEntity<BatchPostingResponse> postBatch(@RequestBody BatchPostingRequest request) {
+        int size = request.items() != null ? request.items().size() : 0;
+        logger.info("Request to post a batch of {} transactions", size);
+        BatchPostingResponse response = transactionService.postBatch(request);
+        logger.info("Batch of {} transactions processed, applied: {}", size, response.applied());
+        if (!response.applied()) {
+            return ResponseEntity.unprocessableEntity().body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{accountId}/transactions")
+    public ResponseEntity<TransactionPage> getTransactions(
+            @PathVariable UUID accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        logger.info("Fetching transactions for account ID: {}", accountId);
+        TransactionPage page = transactionService.getTransactions(accountId, from, to, type, limit, cursor);
+        logger.info("Returning {} transactions for account ID: {}", page.transactions().size(), accountId);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/{accountId}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@PathVariable UUID accountId,
+                                                                    @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        logger.info("Request to export transactions for account ID: {} as {}", accountId, exportFormat);
+        authorizationContext.requireAccountOwnership(accountId); // checked before the response is committed
+
+        StreamingResponseBody body = out -> transactionExportService.export(accountId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-" + accountId + "." + exportFormat.getFileExtension() + "\"")
+                .body(body);
     }
 
-    @GetMapping("/{transactionId}")
-    public ResponseEntity<Transaction> getTransaction(@PathVariable UUID accountId,
-                                                      @PathVariable UUID transactionId) {
+    @GetMapping("/{accountId}/transactions/{transactionId}")
+    public ResponseEntity<TransactionResponse> getTransaction(@PathVariable UUID accountId,
+                                                              @PathVariable UUID transactionId) {
         logger.info("Fetching transaction ID: {} for account ID: {}", transactionId, accountId);
         Transaction tx = transactionService.getTransaction(accountId, transactionId);
-        logger.info("Transaction retrieved: ID={}, Amount={}, Type={}", tx.getId(), tx.getAmount(), tx.getType());
-        return ResponseEntity.ok(tx);
+        logger.info("Transaction retrieved: ID={}, Amount={}, Type={}", tx.getId(), Money.format(tx.getAmount()), tx.getType());
+        return ResponseEntity.ok(TransactionResponse.of(tx));
     }
 }
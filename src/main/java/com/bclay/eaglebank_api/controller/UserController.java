@@ -1,6 +1,7 @@
 package com.bclay.eaglebank_api.controller;
 
 import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.model.UserResponse;
 import com.bclay.eaglebank_api.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,7 +33,7 @@ public class UserController {
         }
         User created = userService.createUser(user);
         logger.info("User created with ID: {}", created.getId());
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        return ResponseEntity.status(HttpStatus.CREATED).body(UserResponse.of(created));
     }
 
     @GetMapping("/{userId}")
@@ -49,13 +50,13 @@ public class UserController {
         }
 
         logger.info("User '{}' successfully retrieved their data", currentUsername);
-        return ResponseEntity.ok(requestedUser);
+        return ResponseEntity.ok(UserResponse.of(requestedUser));
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<User> updateUser(@PathVariable UUID userId,
-                                           @RequestBody User updatedUser,
-                                           Authentication authentication) {
+    public ResponseEntity<UserResponse> updateUser(@PathVariable UUID userId,
+                                                   @RequestBody User updatedUser,
+                                                   Authentication authentication) {
         String currentUsername = authentication.getName();
         logger.info("User '{}' attempting to update userId: {}", currentUsername, userId);
 
@@ -66,19 +67,9 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        if (updatedUser.getUsername() != null) {
-            logger.debug("Updating username to '{}'", updatedUser.getUsername());
-            existingUser.setUsername(updatedUser.getUsername());
-        }
-
-        if (updatedUser.getEmail() != null) {
-            logger.debug("Updating email to '{}'", updatedUser.getEmail());
-            existingUser.setEmail(updatedUser.getEmail());
-        }
-
-        User savedUser = userService.updateUser(existingUser);
+        User savedUser = userService.updateUser(existingUser, updatedUser);
         logger.info("User '{}' successfully updated userId: {}", currentUsername, userId);
-        return ResponseEntity.ok(savedUser);
+        return ResponseEntity.ok(UserResponse.of(savedUser));
     }
 
     @DeleteMapping("/{userId}")
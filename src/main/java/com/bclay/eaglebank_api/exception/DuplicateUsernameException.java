@@ -0,0 +1,7 @@
+package com.bclay.eaglebank_api.exception;
+
+public class DuplicateUsernameException extends RuntimeException {
+    public DuplicateUsernameException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bclay.eaglebank_api.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bclay.eaglebank_api.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,82 @@
+package com.bclay.eaglebank_api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Totals and balance range of one account for one day, kept up to date by every posting so summaries read one row
+ * per day instead of every transaction. Amounts and balances are minor units (pence), see Money.
+ */
+@Entity
+@Data
+@IdClass(AccountDailyAggregate.Key.class)
+public class AccountDailyAggregate {
+
+    @Id
+    private UUID accountId;
+
+    @Id
+    @Column(name = "posting_day")
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private long openingBalance;
+
+    @Column(nullable = false)
+    private long closingBalance;
+
+    @Column(nullable = false)
+    private long minBalance;
+
+    @Column(nullable = false)
+    private long maxBalance;
+
+    @Column(nullable = false)
+    private long depositCount;
+
+    @Column(nullable = false)
+    private long depositTotal;
+
+    @Column(nullable = false)
+    private long withdrawalCount;
+
+    @Column(nullable = false)
+    private long withdrawalTotal;
+
+    public AccountDailyAggregate() {
+    }
+
+    public AccountDailyAggregate(UUID accountId, LocalDate day, long openingBalance) {
+        this.accountId = accountId;
+        this.day = day;
+        this.openingBalance = openingBalance;
+        this.closingBalance = openingBalance;
+        this.minBalance = openingBalance;
+        this.maxBalance = openingBalance;
+    }
+
+    public void apply(TransactionType type, long amount, long balanceAfter) {
+        if (type.isCredit()) {
+            depositCount++;
+            depositTotal += amount;
+        } else {
+            withdrawalCount++;
+            withdrawalTotal += amount;
+        }
+        closingBalance = balanceAfter;
+        minBalance = Math.min(minBalance, balanceAfter);
+        maxBalance = Math.max(maxBalance, balanceAfter);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID accountId;
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,19 @@
+package com.bclay.eaglebank_api.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.UUID;
+
+// reads only the account's own columns, so rendering never initializes the owner or the history
+public record AccountResponse(UUID id,
+                              String accountNumber,
+                              String type,
+                              @JsonSerialize(using = Money.Serializer.class)
+                              @JsonDeserialize(using = Money.Deserializer.class)
+                              Long balance) {
+
+    public static AccountResponse of(BankAccount account) {
+        return new AccountResponse(account.getId(), account.getAccountNumber(), account.getType(), account.getBalance());
+    }
+}
@@ -0,0 +1,28 @@
+package com.bclay.eaglebank_api.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+// periods without postings are left out
+public record AccountSummary(UUID accountId, Period period, LocalDate from, LocalDate to, List<Bucket> buckets) {
+
+    public enum Period {
+        DAY,
+        // ISO weeks, starting on Monday
+        WEEK,
+        MONTH
+    }
+
+    public record Bucket(LocalDate start,
+                         long depositCount,
+                         @JsonSerialize(using = Money.Serializer.class) long depositTotal,
+                         long withdrawalCount,
+                         @JsonSerialize(using = Money.Serializer.class) long withdrawalTotal,
+                         @JsonSerialize(using = Money.Serializer.class) long openingBalance,
+                         @JsonSerialize(using = Money.Serializer.class) long closingBalance,
+                         @JsonSerialize(using = Money.Serializer.class) long minBalance,
+                         @JsonSerialize(using = Money.Serializer.class) long maxBalance) {}
+}
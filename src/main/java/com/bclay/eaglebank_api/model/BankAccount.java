@@ -1,18 +1,21 @@
 package com.bclay.eaglebank_api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
-import lombok.*;
 
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Data
+@Table(indexes = @Index(name = "idx_bank_account_user_id", columnList = "user_id"))
 public class BankAccount {
 
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false, unique = true)
@@ -21,20 +24,30 @@ public class BankAccount {
     @Column(nullable = false)
     private String type;
 
+    // minor units (pence), see Money
     @Column(nullable = false)
-    private Double balance;
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private Long balance;
 
-    @ManyToOne
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    // accepted on create, never rendered: cached accounts carry only the owner's ID
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private User user;
 
     @OneToMany(mappedBy = "bankAccount", cascade = CascadeType.ALL)
+    @JsonIgnore
     private List<Transaction> transactions;
 
     public BankAccount() {
     }
 
-    public BankAccount(UUID id, String accountNumber, String type, Double balance, User user) {
+    public BankAccount(UUID id, String accountNumber, String type, Long balance, User user) {
         this.id = id;
         this.accountNumber = accountNumber;
         this.type = type;
@@ -66,14 +79,22 @@ public class BankAccount {
         this.type = type;
     }
 
-    public Double getBalance() {
+    public Long getBalance() {
         return balance;
     }
 
-    public void setBalance(Double balance) {
+    public void setBalance(Long balance) {
         this.balance = balance;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public User getUser() {
         return user;
     }
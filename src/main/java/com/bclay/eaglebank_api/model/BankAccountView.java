@@ -0,0 +1,16 @@
+package com.bclay.eaglebank_api.model;
+
+import java.util.UUID;
+
+/**
+ * Read-only projection of a bank account, selected column by column so that neither the owner nor the
+ * transaction history is loaded.
+ */
+public record BankAccountView(UUID id, String accountNumber, String type, Long balance, UUID userId) {
+
+    public BankAccount toAccount() {
+        User owner = new User();
+        owner.setId(userId);
+        return new BankAccount(id, accountNumber, type, balance, owner);
+    }
+}
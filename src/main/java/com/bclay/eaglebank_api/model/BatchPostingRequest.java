@@ -0,0 +1,23 @@
+package com.bclay.eaglebank_api.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchPostingRequest(Mode mode, List<Item> items) {
+
+    public enum Mode {
+        // every item is applied, or none is
+        ATOMIC,
+        // valid items are applied, invalid ones are reported and skipped
+        BEST_EFFORT
+    }
+
+    public record Item(UUID accountId,
+                       TransactionType type,
+                       @JsonSerialize(using = Money.Serializer.class)
+                       @JsonDeserialize(using = Money.Deserializer.class)
+                       long amount) {}
+}
@@ -0,0 +1,16 @@
+package com.bclay.eaglebank_api.model;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchPostingResponse(BatchPostingRequest.Mode mode, boolean applied, List<Result> results) {
+
+    public enum Status {
+        POSTED,
+        REJECTED,
+        // valid on its own, but not applied because an atomic batch was rejected
+        NOT_APPLIED
+    }
+
+    public record Result(int index, UUID accountId, Status status, UUID transactionId, String message) {}
+}
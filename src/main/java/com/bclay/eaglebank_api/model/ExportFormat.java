@@ -0,0 +1,31 @@
+package com.bclay.eaglebank_api.model;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static ExportFormat fromParameter(String format) {
+        for (ExportFormat candidate : values()) {
+            if (candidate.name().equalsIgnoreCase(format) || candidate.fileExtension.equalsIgnoreCase(format)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + format);
+    }
+}
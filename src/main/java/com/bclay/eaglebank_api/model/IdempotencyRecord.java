@@ -0,0 +1,43 @@
+package com.bclay.eaglebank_api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * The response to the first request made with an Idempotency-Key, replayed to retries of the same request.
+ * Keys are scoped to the user, so the id is {@code userId:key}. A row without a status is a claim: the request
+ * holding {@code claimToken} is still running, and another may take the key over once {@code expiresAt} passes.
+ */
+@Entity
+@Data
+@Table(indexes = @Index(name = "idx_idempotency_record_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 300)
+    private String id;
+
+    // SHA-256 of the operation and request body, so a key reused for a different request is caught
+    @Column(nullable = false, length = 44)
+    private String fingerprint;
+
+    private Integer status;
+
+    // unbounded text rather than @Lob, which PostgreSQL would store as a large object
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private String body;
+
+    // held by the request running under the key, cleared once its response is recorded
+    @Column(length = 36)
+    private String claimToken;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public IdempotencyRecord() {
+    }
+}
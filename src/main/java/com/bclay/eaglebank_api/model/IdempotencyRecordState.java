@@ -0,0 +1,18 @@
+package com.bclay.eaglebank_api.model;
+
+import java.time.LocalDateTime;
+
+// unmanaged projection, so a request polling for another one's response always reads the committed row
+public record IdempotencyRecordState(String fingerprint, Integer status, String body, LocalDateTime expiresAt) {
+
+    /**
+     * Whether the request that claimed the key has finished; until then the row only holds the claim.
+     */
+    public boolean completed() {
+        return status != null;
+    }
+
+    public boolean expired(LocalDateTime now) {
+        return expiresAt.isBefore(now);
+    }
+}
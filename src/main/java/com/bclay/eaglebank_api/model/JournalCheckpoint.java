@@ -0,0 +1,27 @@
+package com.bclay.eaglebank_api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Highest journal sequence applied to the database. It is written in the same transaction as the entries it covers,
+ * so recovery replays exactly the entries after it.
+ */
+@Entity
+@Data
+public class JournalCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private long appliedSequence;
+
+    public JournalCheckpoint() {
+    }
+
+    public JournalCheckpoint(String name, long appliedSequence) {
+        this.name = name;
+        this.appliedSequence = appliedSequence;
+    }
+}
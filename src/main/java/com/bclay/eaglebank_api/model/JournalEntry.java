@@ -0,0 +1,17 @@
+package com.bclay.eaglebank_api.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// a posting accepted into the write-behind journal; the sequence orders it against every other entry
+public record JournalEntry(long sequence,
+                           UUID transactionId,
+                           UUID accountId,
+                           TransactionType type,
+                           long amount,
+                           LocalDateTime timestamp) {
+
+    public long delta() {
+        return type.signed(amount);
+    }
+}
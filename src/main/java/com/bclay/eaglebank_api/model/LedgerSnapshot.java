@@ -0,0 +1,51 @@
+package com.bclay.eaglebank_api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Materialized state of an account's ledger up to a watermark, the (timestamp, id) key of the last posting folded in.
+ * Replays start after the watermark, so audit cost is bounded by the postings since the last snapshot.
+ * The digest is a SHA-256 hash chain over every posting up to the watermark.
+ */
+@Entity
+@Data
+public class LedgerSnapshot {
+
+    @Id
+    private UUID accountId;
+
+    // minor units (pence), see Money
+    @Column(nullable = false)
+    private long balance;
+
+    @Column(nullable = false)
+    private long entryCount;
+
+    private LocalDateTime watermarkTimestamp;
+
+    private UUID watermarkId;
+
+    @Column(nullable = false, length = 44)
+    private String digest;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+
+    public LedgerSnapshot() {
+    }
+
+    public LedgerSnapshot(UUID accountId, long balance, long entryCount, LocalDateTime watermarkTimestamp,
+                          UUID watermarkId, String digest, LocalDateTime takenAt) {
+        this.accountId = accountId;
+        this.balance = balance;
+        this.entryCount = entryCount;
+        this.watermarkTimestamp = watermarkTimestamp;
+        this.watermarkId = watermarkId;
+        this.digest = digest;
+        this.takenAt = takenAt;
+    }
+}
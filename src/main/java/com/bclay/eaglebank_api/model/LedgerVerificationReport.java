@@ -0,0 +1,17 @@
+package com.bclay.eaglebank_api.model;
+
+import java.util.List;
+import java.util.UUID;
+
+public record LedgerVerificationReport(boolean fullReplay, int accountsChecked, long entriesReplayed,
+                                       long elapsedMillis, List<Drift> drifts) {
+
+    public boolean consistent() {
+        return drifts.isEmpty();
+    }
+
+    /**
+     * An account whose recorded balance, or snapshot, disagrees with its ledger. Balances in minor units.
+     */
+    public record Drift(UUID accountId, long recordedBalance, long ledgerBalance, String reason) {}
+}
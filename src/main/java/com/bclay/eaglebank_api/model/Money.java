@@ -0,0 +1,78 @@
+package com.bclay.eaglebank_api.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Monetary amounts are held as {@code long} minor units (pence) everywhere inside the application and only
+ * converted to decimals at the JSON boundary, so posting arithmetic is exact and allocation-free.
+ */
+public final class Money {
+
+    public static final Currency CURRENCY = Currency.getInstance("GBP");
+    public static final int SCALE = CURRENCY.getDefaultFractionDigits();
+
+    private Money() {
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    "Amount " + amount.toPlainString() + " is not representable with " + SCALE + " decimal places");
+        }
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public static String format(long minorUnits) {
+        return toDecimal(minorUnits).toPlainString();
+    }
+
+    public static class Serializer extends StdSerializer<Long> {
+
+        public Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long minorUnits, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(toDecimal(minorUnits));
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Long> {
+
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            try {
+                BigDecimal amount = p.currentToken() == JsonToken.VALUE_STRING
+                        ? new BigDecimal(p.getText().trim())
+                        : p.getDecimalValue();
+                return toMinorUnits(amount);
+            } catch (NumberFormatException e) {
+                throw JsonMappingException.from(p, "Invalid monetary amount: " + p.getText(), e);
+            } catch (IllegalArgumentException e) {
+                throw JsonMappingException.from(p, e.getMessage(), e);
+            }
+        }
+    }
+}
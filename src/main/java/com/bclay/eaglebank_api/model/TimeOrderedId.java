@@ -0,0 +1,18 @@
+package com.bclay.eaglebank_api.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a UUID primary key that sorts by creation time (see {@link TimeOrderedIdGenerator}), so inserts append
+ * to the right-hand edge of the primary-key index instead of landing on random pages.
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
@@ -0,0 +1,52 @@
+package com.bclay.eaglebank_api.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDv7 (RFC 9562): 48 bits of Unix milliseconds, then a 12-bit counter in rand_a, then 62 random bits.
+ * The counter makes IDs strictly increasing within this JVM even when many are issued in the same millisecond;
+ * if it runs out, the timestamp is borrowed from the next millisecond rather than going backwards. Across nodes,
+ * IDs interleave by time and the random bits keep them unique.
+ */
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    private static final int COUNTER_BITS = 12;
+
+    // Unix millis << COUNTER_BITS | counter, of the last ID issued
+    private static final AtomicLong LAST = new AtomicLong();
+
+    // seeds the random bits so that two JVMs started in the same millisecond do not share a sequence
+    private static final long NODE_SALT = new SecureRandom().nextLong();
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long stamp = LAST.updateAndGet(last -> Math.max(last + 1, now));
+
+        long millis = stamp >>> COUNTER_BITS;
+        long counter = stamp & ((1L << COUNTER_BITS) - 1);
+        long mostSignificant = (millis << 16) | 0x7000L | counter;
+        long random = ThreadLocalRandom.current().nextLong() ^ NODE_SALT;
+        long leastSignificant = (random & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -1,26 +1,33 @@
 package com.bclay.eaglebank_api.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
-import lombok.*;
+import org.hibernate.annotations.Immutable;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+// ledger entries are append-only: Hibernate never issues an UPDATE for them
 @Entity
-@Data
+@Immutable
+@Table(indexes = @Index(name = "idx_transaction_account_timestamp", columnList = "account_id, timestamp, id"))
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private TransactionType type;
 
+    // minor units (pence), see Money
     @Column(nullable = false)
-    private double amount;
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private long amount;
 
     @Column(nullable = false)
     private LocalDateTime timestamp;
@@ -28,7 +35,7 @@ public class Transaction {
     public Transaction() {
     }
 
-    public Transaction(UUID id, TransactionType type, double amount, LocalDateTime timestamp, BankAccount bankAccount) {
+    public Transaction(UUID id, TransactionType type, long amount, LocalDateTime timestamp, BankAccount bankAccount) {
         this.id = id;
         this.type = type;
         this.amount = amount;
@@ -36,7 +43,7 @@ public class Transaction {
         this.bankAccount = bankAccount;
     }
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
     @JsonIgnore
     private BankAccount bankAccount;
@@ -57,11 +64,11 @@ public class Transaction {
         this.type = type;
     }
 
-    public double getAmount() {
+    public long getAmount() {
         return amount;
     }
 
-    public void setAmount(double amount) {
+    public void setAmount(long amount) {
         this.amount = amount;
     }
 
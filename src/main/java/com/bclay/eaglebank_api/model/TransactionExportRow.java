@@ -0,0 +1,18 @@
+package com.bclay.eaglebank_api.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// unmanaged projection, so streaming millions of rows never grows the persistence context
+public record TransactionExportRow(UUID id,
+                                   TransactionType type,
+                                   @JsonSerialize(using = Money.Serializer.class) long amount,
+                                   LocalDateTime timestamp) {
+
+    public static TransactionExportRow of(Transaction transaction) {
+        return new TransactionExportRow(transaction.getId(), transaction.getType(), transaction.getAmount(),
+                transaction.getTimestamp());
+    }
+}
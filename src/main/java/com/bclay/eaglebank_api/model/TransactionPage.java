@@ -0,0 +1,6 @@
+package com.bclay.eaglebank_api.model;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record TransactionPage(List<TransactionResponse> transactions, String nextCursor) {}
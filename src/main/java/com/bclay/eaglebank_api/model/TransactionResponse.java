@@ -0,0 +1,21 @@
+package com.bclay.eaglebank_api.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// the posting without its account, so rendering never touches the lazy association
+public record TransactionResponse(UUID id,
+                                  TransactionType type,
+                                  @JsonSerialize(using = Money.Serializer.class)
+                                  @JsonDeserialize(using = Money.Deserializer.class)
+                                  long amount,
+                                  LocalDateTime timestamp) {
+
+    public static TransactionResponse of(Transaction transaction) {
+        return new TransactionResponse(transaction.getId(), transaction.getType(), transaction.getAmount(),
+                transaction.getTimestamp());
+    }
+}
@@ -1,7 +1,28 @@
 package com.bclay.eaglebank_api.model;
 
 public enum TransactionType {
-    DEPOSIT,
-    WITHDRAWAL
-}
+    DEPOSIT(true),
+    WITHDRAWAL(false),
+    // the two legs of a transfer, only ever posted together by TransactionService.transfer
+    TRANSFER_IN(true),
+    TRANSFER_OUT(false);
+
+    private final boolean credit;
+
+    TransactionType(boolean credit) {
+        this.credit = credit;
+    }
 
+    public boolean isCredit() {
+        return credit;
+    }
+
+    public boolean isTransfer() {
+        return this == TRANSFER_IN || this == TRANSFER_OUT;
+    }
+
+    // the change an amount of this type makes to the account balance
+    public long signed(long amount) {
+        return credit ? amount : -amount;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bclay.eaglebank_api.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.UUID;
+
+public record TransferRequest(UUID toAccountId,
+                              @JsonSerialize(using = Money.Serializer.class)
+                              @JsonDeserialize(using = Money.Deserializer.class)
+                              long amount) {}
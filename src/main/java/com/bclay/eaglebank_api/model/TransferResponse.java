@@ -0,0 +1,4 @@
+package com.bclay.eaglebank_api.model;
+
+// the TRANSFER_OUT posting on the source account and the TRANSFER_IN posting on the destination
+public record TransferResponse(TransactionResponse debit, TransactionResponse credit) {}
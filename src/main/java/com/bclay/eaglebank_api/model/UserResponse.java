@@ -0,0 +1,11 @@
+package com.bclay.eaglebank_api.model;
+
+import java.util.UUID;
+
+// what the API renders for a user; the password hash never leaves the entity
+public record UserResponse(UUID id, String email, String username) {
+
+    public static UserResponse of(User user) {
+        return new UserResponse(user.getId(), user.getEmail(), user.getUsername());
+    }
+}
@@ -0,0 +1,21 @@
+package com.bclay.eaglebank_api.repository;
+
+import com.bclay.eaglebank_api.model.AccountDailyAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface AccountDailyAggregateRepository
+        extends JpaRepository<AccountDailyAggregate, AccountDailyAggregate.Key> {
+
+    List<AccountDailyAggregate> findByAccountIdAndDayBetweenOrderByDay(UUID accountId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("delete from AccountDailyAggregate a where a.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") UUID accountId);
+}
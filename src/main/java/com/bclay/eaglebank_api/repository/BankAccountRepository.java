@@ -1,13 +1,91 @@
 package com.bclay.eaglebank_api.repository;
 
 import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.BankAccountView;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BankAccountRepository extends JpaRepository<BankAccount, UUID> {
-    List<BankAccount> findByUserId(UUID userId);
+
+    /**
+     * The order in which callers lock several accounts, matching the database's ordering of the id column
+     * (unsigned, most significant bits first) so that it agrees with {@code order by a.id} locks.
+     */
+    Comparator<UUID> LOCK_ORDER = Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
 
     boolean existsByUserId(UUID userId);
-}
\ No newline at end of file
+
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
+    @Query("select a.id from BankAccount a")
+    List<UUID> findAllIds();
+
+    @Query("select a.id from BankAccount a where a.user.id = :userId")
+    List<UUID> findIdsByUserId(@Param("userId") UUID userId);
+
+    @Query("select new com.bclay.eaglebank_api.model.BankAccountView(a.id, a.accountNumber, a.type, a.balance, a.user.id) " +
+            "from BankAccount a " +
+            "where a.id = :accountId")
+    Optional<BankAccountView> findViewById(@Param("accountId") UUID accountId);
+
+    @Query("select new com.bclay.eaglebank_api.model.BankAccountView(a.id, a.accountNumber, a.type, a.balance, a.user.id) " +
+            "from BankAccount a " +
+            "where a.id in :accountIds")
+    List<BankAccountView> findViewsByIdIn(@Param("accountIds") Collection<UUID> accountIds);
+
+    @Query("select a.balance from BankAccount a where a.id = :accountId")
+    Optional<Long> findBalanceById(@Param("accountId") UUID accountId);
+
+    /**
+     * Loads the account and blocks postings to it until the caller's transaction ends, so an audit sees the
+     * balance and the ledger at the same point.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from BankAccount a where a.id = :accountId")
+    Optional<BankAccount> lockForAudit(@Param("accountId") UUID accountId);
+
+    /**
+     * Loads and write-locks one account. Callers locking more than one must take them in {@link #LOCK_ORDER}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from BankAccount a where a.id = :accountId")
+    Optional<BankAccount> lockById(@Param("accountId") UUID accountId);
+
+    /**
+     * Loads and write-locks the given accounts that belong to the user. Rows are locked in id order,
+     * so callers locking overlapping sets of accounts cannot deadlock each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from BankAccount a " +
+            "where a.id in :accountIds " +
+            "and a.user.id = :userId " +
+            "order by a.id")
+    List<BankAccount> lockOwnedAccounts(@Param("accountIds") Collection<UUID> accountIds,
+                                        @Param("userId") UUID userId);
+
+    /**
+     * Applies a signed delta to the balance of an account owned by the given user in a single UPDATE.
+     * Returns 0 when the account does not exist, belongs to someone else, or would go below zero once the
+     * journaled postings still pending for it are applied too.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BankAccount a set a.balance = a.balance + :delta, a.version = a.version + 1 " +
+            "where a.id = :accountId " +
+            "and a.user.id = :userId " +
+            "and a.balance + :pending + :delta >= 0")
+    int applyBalanceDelta(@Param("accountId") UUID accountId,
+                          @Param("userId") UUID userId,
+                          @Param("delta") long delta,
+                          @Param("pending") long pending);
+}
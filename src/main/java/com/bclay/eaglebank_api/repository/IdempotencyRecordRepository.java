@@ -0,0 +1,65 @@
+package com.bclay.eaglebank_api.repository;
+
+import com.bclay.eaglebank_api.model.IdempotencyRecord;
+import com.bclay.eaglebank_api.model.IdempotencyRecordState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims a key with a plain insert, so the primary key decides between concurrent requests on any instance:
+     * the loser gets a DataIntegrityViolationException. (save would merge into an existing row instead.)
+     */
+    @Modifying
+    @Query(value = "insert into idempotency_record (id, fingerprint, claim_token, expires_at) " +
+            "values (:id, :fingerprint, :claimToken, :expiresAt)", nativeQuery = true)
+    int claim(@Param("id") String id,
+              @Param("fingerprint") String fingerprint,
+              @Param("claimToken") String claimToken,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Query("select new com.bclay.eaglebank_api.model.IdempotencyRecordState(r.fingerprint, r.status, r.body, r.expiresAt) " +
+            "from IdempotencyRecord r where r.id = :id")
+    Optional<IdempotencyRecordState> findState(@Param("id") String id);
+
+    /**
+     * Claims a key whose record or claim has expired, resetting it for the new request.
+     */
+    @Modifying
+    @Query("update IdempotencyRecord r " +
+            "set r.fingerprint = :fingerprint, r.claimToken = :claimToken, r.status = null, r.body = null, " +
+            "    r.expiresAt = :expiresAt " +
+            "where r.id = :id and r.expiresAt < :now")
+    int takeOver(@Param("id") String id,
+                 @Param("fingerprint") String fingerprint,
+                 @Param("claimToken") String claimToken,
+                 @Param("expiresAt") LocalDateTime expiresAt,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Records the response of the request holding the claim; updates nothing if the claim was taken over.
+     */
+    @Modifying
+    @Query("update IdempotencyRecord r " +
+            "set r.status = :status, r.body = :body, r.claimToken = null, r.expiresAt = :expiresAt " +
+            "where r.id = :id and r.claimToken = :claimToken")
+    int complete(@Param("id") String id,
+                 @Param("claimToken") String claimToken,
+                 @Param("status") int status,
+                 @Param("body") String body,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.claimToken = :claimToken")
+    int release(@Param("id") String id, @Param("claimToken") String claimToken);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
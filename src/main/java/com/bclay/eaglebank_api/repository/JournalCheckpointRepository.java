@@ -0,0 +1,7 @@
+package com.bclay.eaglebank_api.repository;
+
+import com.bclay.eaglebank_api.model.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
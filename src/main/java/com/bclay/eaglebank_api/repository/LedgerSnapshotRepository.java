@@ -0,0 +1,9 @@
+package com.bclay.eaglebank_api.repository;
+
+import com.bclay.eaglebank_api.model.LedgerSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshot, UUID> {
+}
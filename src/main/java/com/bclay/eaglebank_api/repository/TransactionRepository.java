@@ -1,12 +1,69 @@
 package com.bclay.eaglebank_api.repository;
 
 import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionExportRow;
+import com.bclay.eaglebank_api.model.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
     List<Transaction> findByBankAccountId(UUID accountId);
-}
 
+    Optional<Transaction> findByIdAndBankAccountId(UUID id, UUID accountId);
+
+    /**
+     * Keyset page of an account's history, newest first, served by idx_transaction_account_timestamp.
+     * Rows strictly after the (afterTimestamp, afterId) position are returned; null filters are ignored.
+     * Optional timestamps are cast in their null checks: PostgreSQL cannot infer the type of a bare null parameter.
+     */
+    @Query("select t from Transaction t " +
+            "where t.bankAccount.id = :accountId " +
+            "and (cast(:from as LocalDateTime) is null or t.timestamp >= :from) " +
+            "and (cast(:to as LocalDateTime) is null or t.timestamp < :to) " +
+            "and (:type is null or t.type = :type) " +
+            "and (cast(:afterTimestamp as LocalDateTime) is null or t.timestamp < :afterTimestamp " +
+            "     or (t.timestamp = :afterTimestamp and t.id < :afterId)) " +
+            "order by t.timestamp desc, t.id desc")
+    List<Transaction> findPage(@Param("accountId") UUID accountId,
+                               @Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to,
+                               @Param("type") TransactionType type,
+                               @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                               @Param("afterId") UUID afterId,
+                               Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.bclay.eaglebank_api.model.TransactionExportRow(t.id, t.type, t.amount, t.timestamp) " +
+            "from Transaction t " +
+            "where t.bankAccount.id = :accountId " +
+            "order by t.timestamp, t.id")
+    Stream<TransactionExportRow> streamExportRows(@Param("accountId") UUID accountId);
+
+    /**
+     * Ledger entries in replay order, strictly after the (afterTimestamp, afterId) watermark and strictly before
+     * {@code before}; either bound may be null. The null checks are cast for PostgreSQL, as in {@link #findPage}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.bclay.eaglebank_api.model.TransactionExportRow(t.id, t.type, t.amount, t.timestamp) " +
+            "from Transaction t " +
+            "where t.bankAccount.id = :accountId " +
+            "and (cast(:afterTimestamp as LocalDateTime) is null or t.timestamp > :afterTimestamp " +
+            "     or (t.timestamp = :afterTimestamp and t.id > :afterId)) " +
+            "and (cast(:before as LocalDateTime) is null or t.timestamp < :before) " +
+            "order by t.timestamp, t.id")
+    Stream<TransactionExportRow> streamLedger(@Param("accountId") UUID accountId,
+                                              @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                              @Param("afterId") UUID afterId,
+                                              @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,210 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.AccountDailyAggregate;
+import com.bclay.eaglebank_api.model.AccountSummary;
+import com.bclay.eaglebank_api.model.TransactionExportRow;
+import com.bclay.eaglebank_api.repository.AccountDailyAggregateRepository;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Maintains {@link AccountDailyAggregate} rows as postings are made and rolls them up into account summaries.
+ * Postings are recorded inside the posting's transaction while it holds the account's row lock, so find-or-create
+ * on the day's row cannot race another posting to the same account.
+ */
+@Service
+@Timed("eaglebank.service")
+public class AccountAggregateService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountAggregateService.class);
+
+    private final AccountDailyAggregateRepository aggregateRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AuthorizationContext authorizationContext;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean backfillOnStartup;
+    private final int maxSummaryDays;
+    private final ExecutorService backfillPool;
+
+    public AccountAggregateService(AccountDailyAggregateRepository aggregateRepository,
+                                   BankAccountRepository bankAccountRepository,
+                                   TransactionRepository transactionRepository,
+                                   AuthorizationContext authorizationContext,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${eaglebank.accounts.summary.backfill-on-startup:false}") boolean backfillOnStartup,
+                                   @Value("${eaglebank.accounts.summary.backfill-threads:4}") int backfillThreads,
+                                   @Value("${eaglebank.accounts.summary.max-days:1096}") int maxSummaryDays) {
+        this.aggregateRepository = aggregateRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.transactionRepository = transactionRepository;
+        this.authorizationContext = authorizationContext;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillOnStartup = backfillOnStartup;
+        this.maxSummaryDays = maxSummaryDays;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.backfillPool = Executors.newFixedThreadPool(backfillThreads, runnable -> {
+            Thread thread = new Thread(runnable, "aggregate-backfill-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds postings, in the order they were applied, to their days' aggregates. Must run in the posting's
+     * transaction after the account row has been locked.
+     */
+    public void record(UUID accountId, long balanceBefore, List<TransactionExportRow> postings) {
+        fold(accountId, balanceBefore, postings.iterator(), day -> aggregateRepository
+                .findById(new AccountDailyAggregate.Key(accountId, day))
+                .orElse(null));
+    }
+
+    public void deleteAccount(UUID accountId) {
+        aggregateRepository.deleteByAccountId(accountId);
+    }
+
+    public AccountSummary summarize(UUID accountId, LocalDate from, LocalDate to, AccountSummary.Period period) {
+        authorizationContext.requireAccountOwnership(accountId);
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= maxSummaryDays) {
+            throw new IllegalArgumentException("Summary range must not exceed " + maxSummaryDays + " days");
+        }
+        AccountSummary.Period bucketPeriod = period != null ? period : AccountSummary.Period.DAY;
+
+        List<AccountSummary.Bucket> buckets = new ArrayList<>();
+        LocalDate bucketStart = null;
+        AccountDailyAggregate bucket = null;
+        for (AccountDailyAggregate day : aggregateRepository.findByAccountIdAndDayBetweenOrderByDay(accountId, start, end)) {
+            LocalDate dayBucket = bucketStart(day.getDay(), bucketPeriod);
+            if (!dayBucket.equals(bucketStart)) {
+                if (bucket != null) {
+                    buckets.add(toBucket(bucketStart, bucket));
+                }
+                bucketStart = dayBucket;
+                bucket = new AccountDailyAggregate(accountId, dayBucket, day.getOpeningBalance());
+            }
+            merge(bucket, day);
+        }
+        if (bucket != null) {
+            buckets.add(toBucket(bucketStart, bucket));
+        }
+        logger.debug("Summarised account {} from {} to {} into {} {} buckets", accountId, start, end, buckets.size(), bucketPeriod);
+        return new AccountSummary(accountId, bucketPeriod, start, end, buckets);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfillAll();
+        }
+    }
+
+    public void backfillAll() {
+        backfill(bankAccountRepository.findAllIds());
+    }
+
+    /**
+     * Rebuilds the aggregates of the given accounts from their full history, several accounts at a time. Each account
+     * is locked while it is rebuilt, so postings to it wait rather than land between the replay and the write.
+     */
+    public void backfill(Collection<UUID> accountIds) {
+        long started = System.nanoTime();
+        List<CompletableFuture<Void>> rebuilds = new ArrayList<>(accountIds.size());
+        for (UUID accountId : accountIds) {
+            rebuilds.add(CompletableFuture.runAsync(() -> rebuild(accountId), backfillPool));
+        }
+        CompletableFuture.allOf(rebuilds.toArray(CompletableFuture[]::new)).join();
+        logger.info("Backfilled daily aggregates for {} accounts in {} ms", accountIds.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void rebuild(UUID accountId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (bankAccountRepository.lockForAudit(accountId).isEmpty()) {
+                return;
+            }
+            aggregateRepository.deleteByAccountId(accountId);
+            try (Stream<TransactionExportRow> history = transactionRepository.streamLedger(accountId, null, null, null)) {
+                fold(accountId, 0, history.iterator(), day -> null);
+            }
+        });
+    }
+
+    private void fold(UUID accountId, long balanceBefore, Iterator<TransactionExportRow> postings,
+                      Function<LocalDate, AccountDailyAggregate> existing) {
+        long balance = balanceBefore;
+        AccountDailyAggregate current = null;
+        List<AccountDailyAggregate> touched = new ArrayList<>();
+        while (postings.hasNext()) {
+            TransactionExportRow posting = postings.next();
+            LocalDate day = posting.timestamp().toLocalDate();
+            if (current == null || !current.getDay().equals(day)) {
+                current = existing.apply(day);
+                if (current == null) {
+                    current = new AccountDailyAggregate(accountId, day, balance);
+                }
+                touched.add(current);
+            }
+            balance += posting.type().signed(posting.amount());
+            current.apply(posting.type(), posting.amount(), balance);
+        }
+        aggregateRepository.saveAll(touched);
+    }
+
+    private static LocalDate bucketStart(LocalDate day, AccountSummary.Period period) {
+        return switch (period) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    private static void merge(AccountDailyAggregate bucket, AccountDailyAggregate day) {
+        bucket.setDepositCount(bucket.getDepositCount() + day.getDepositCount());
+        bucket.setDepositTotal(bucket.getDepositTotal() + day.getDepositTotal());
+        bucket.setWithdrawalCount(bucket.getWithdrawalCount() + day.getWithdrawalCount());
+        bucket.setWithdrawalTotal(bucket.getWithdrawalTotal() + day.getWithdrawalTotal());
+        bucket.setMinBalance(Math.min(bucket.getMinBalance(), day.getMinBalance()));
+        bucket.setMaxBalance(Math.max(bucket.getMaxBalance(), day.getMaxBalance()));
+        bucket.setClosingBalance(day.getClosingBalance());
+    }
+
+    private static AccountSummary.Bucket toBucket(LocalDate start, AccountDailyAggregate totals) {
+        return new AccountSummary.Bucket(start, totals.getDepositCount(), totals.getDepositTotal(),
+                totals.getWithdrawalCount(), totals.getWithdrawalTotal(), totals.getOpeningBalance(),
+                totals.getClosingBalance(), totals.getMinBalance(), totals.getMaxBalance());
+    }
+
+    @Override
+    public void destroy() {
+        backfillPool.shutdownNow();
+    }
+}
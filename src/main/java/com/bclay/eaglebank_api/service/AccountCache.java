@@ -0,0 +1,133 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.BankAccountView;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of bank accounts by ID and of each user's account IDs. Entries are immutable snapshots; callers
+ * get a fresh detached copy, so nothing they change leaks back into the cache.
+ * <p>
+ * Writers evict once their database transaction completes, before the request that made the change returns. Loads
+ * happen inside the cache's per-key computation, which an eviction waits for, so a load that read the row before the
+ * commit cannot put its stale snapshot back after the eviction. Lists load their missing accounts in one query and
+ * only cache them if no account was evicted meanwhile.
+ */
+@Component
+public class AccountCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountCache.class);
+
+    private final BankAccountRepository bankAccountRepository;
+    private final Cache<UUID, BankAccountView> accounts;
+    private final Cache<UUID, List<UUID>> accountIdsByUser;
+    private final AtomicLong accountEvictions = new AtomicLong();
+
+    public AccountCache(BankAccountRepository bankAccountRepository,
+                        @Value("${eaglebank.accounts.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${eaglebank.accounts.cache.ttl:5m}") Duration ttl) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.accountIdsByUser = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<BankAccount> get(UUID accountId) {
+        BankAccountView cached = accounts.get(accountId, id -> bankAccountRepository.findViewById(id).orElse(null));
+        return Optional.ofNullable(cached).map(BankAccountView::toAccount);
+    }
+
+    public List<BankAccount> getByUser(UUID userId) {
+        List<UUID> accountIds = accountIdsByUser.get(userId, id -> List.copyOf(bankAccountRepository.findIdsByUserId(id)));
+        Map<UUID, BankAccountView> found = new HashMap<>(accounts.getAllPresent(accountIds));
+        if (found.size() < accountIds.size()) {
+            List<UUID> missing = new ArrayList<>(accountIds.size() - found.size());
+            for (UUID accountId : accountIds) {
+                if (!found.containsKey(accountId)) {
+                    missing.add(accountId);
+                }
+            }
+            long evictionsBefore = accountEvictions.get();
+            for (BankAccountView view : bankAccountRepository.findViewsByIdIn(missing)) {
+                found.put(view.id(), view);
+                // an eviction bumps the counter before it takes the entry's lock, so this cannot re-cache a stale row
+                accounts.asMap().compute(view.id(), (id, current) ->
+                        current == null && accountEvictions.get() == evictionsBefore ? view : current);
+            }
+        }
+
+        List<BankAccount> result = new ArrayList<>(accountIds.size());
+        for (UUID accountId : accountIds) {
+            BankAccountView view = found.get(accountId);
+            if (view != null) {
+                result.add(view.toAccount());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evicts the account when the current transaction completes, or straight away outside one. Must be called by
+     * anything that changes an account row, its balance included.
+     */
+    public void evictAccount(UUID accountId) {
+        afterCompletion(() -> {
+            logger.debug("Evicting cached bank account: {}", accountId);
+            accountEvictions.incrementAndGet();
+            accounts.invalidate(accountId);
+        });
+    }
+
+    /**
+     * Evicts the user's account list when the current transaction completes; needed whenever an account is created
+     * or deleted.
+     */
+    public void evictUser(UUID userId) {
+        afterCompletion(() -> {
+            logger.debug("Evicting cached account list for user ID: {}", userId);
+            accountIdsByUser.invalidate(userId);
+        });
+    }
+
+    public CacheStats accountStats() {
+        return accounts.stats();
+    }
+
+    public CacheStats userAccountStats() {
+        return accountIdsByUser.stats();
+    }
+
+    private static void afterCompletion(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        // on rollback too: a read inside the transaction may have cached a row that never committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.run();
+            }
+        });
+    }
+}
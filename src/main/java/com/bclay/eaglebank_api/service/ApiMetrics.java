@@ -0,0 +1,85 @@
+package com.bclay.eaglebank_api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business counters that timers cannot show: why requests were turned away. Counters are registered up front
+ * so the hot path only increments.
+ */
+@Component
+public class ApiMetrics {
+
+    private final Counter insufficientBalance;
+    private final Counter batchItemRejected;
+    private final Counter ownershipDenied;
+    private final Counter tokenRejected;
+    private final Counter loginRateLimited;
+    private final Counter loginQueueFull;
+    private final Counter ledgerDrift;
+    private final Counter journalEntrySkipped;
+
+    public ApiMetrics(MeterRegistry registry) {
+        this.insufficientBalance = Counter.builder("eaglebank.transactions.rejected")
+                .description("Postings rejected because the balance would go below zero")
+                .tag("reason", "insufficient_balance")
+                .register(registry);
+        this.batchItemRejected = Counter.builder("eaglebank.transactions.batch.items.rejected")
+                .description("Batch items rejected for any reason")
+                .register(registry);
+        this.ownershipDenied = Counter.builder("eaglebank.authorization.denied")
+                .description("Requests for a bank account owned by another user")
+                .register(registry);
+        this.tokenRejected = Counter.builder("eaglebank.auth.token.rejected")
+                .description("Bearer tokens that were invalid, expired or revoked")
+                .register(registry);
+        this.loginRateLimited = loginRejectedCounter(registry, "rate_limited");
+        this.loginQueueFull = loginRejectedCounter(registry, "queue_full");
+        this.ledgerDrift = Counter.builder("eaglebank.ledger.drift")
+                .description("Accounts found by the ledger verifier to disagree with their entries")
+                .register(registry);
+        this.journalEntrySkipped = Counter.builder("eaglebank.journal.entries.skipped")
+                .description("Journaled postings that could not be applied, e.g. because the account was deleted")
+                .register(registry);
+    }
+
+    private static Counter loginRejectedCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("eaglebank.login.rejected")
+                .description("Login attempts turned away before password verification")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    public void insufficientBalance() {
+        insufficientBalance.increment();
+    }
+
+    public void batchItemRejected() {
+        batchItemRejected.increment();
+    }
+
+    public void ownershipDenied() {
+        ownershipDenied.increment();
+    }
+
+    public void tokenRejected() {
+        tokenRejected.increment();
+    }
+
+    public void loginRateLimited() {
+        loginRateLimited.increment();
+    }
+
+    public void loginQueueFull() {
+        loginQueueFull.increment();
+    }
+
+    public void ledgerDrift() {
+        ledgerDrift.increment();
+    }
+
+    public void journalEntrySkipped() {
+        journalEntrySkipped.increment();
+    }
+}
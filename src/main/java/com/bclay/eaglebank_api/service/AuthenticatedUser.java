@@ -0,0 +1,26 @@
+package com.bclay.eaglebank_api.service;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Spring Security principal that also carries the user's ID, so ownership checks never have to look
+ * the user up by username again.
+ */
+public class AuthenticatedUser extends User {
+
+    private final UUID id;
+
+    public AuthenticatedUser(UUID id, String username, String password,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,130 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.exception.BankAccountNotFoundException;
+import com.bclay.eaglebank_api.exception.UserNotFoundException;
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Resolves the current user's ID and account ownership once per request. Results are memoised as request
+ * attributes, so a controller and the services it calls share them; outside a request nothing is memoised.
+ */
+@Component
+public class AuthorizationContext {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationContext.class);
+
+    private static final String USER_ID_ATTRIBUTE = AuthorizationContext.class.getName() + ".userId";
+    private static final String OWNED_ACCOUNTS_ATTRIBUTE = AuthorizationContext.class.getName() + ".ownedAccounts";
+
+    private final BankAccountRepository bankAccountRepository;
+    private final UserRepository userRepository;
+    private final ApiMetrics apiMetrics;
+
+    public AuthorizationContext(BankAccountRepository bankAccountRepository, UserRepository userRepository,
+                                ApiMetrics apiMetrics) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.userRepository = userRepository;
+        this.apiMetrics = apiMetrics;
+    }
+
+    public UUID currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new AccessDeniedException("Not authenticated");
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(USER_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof UUID id) {
+            return id;
+        }
+
+        // principal was not built by UserDetailsServiceImpl, fall back to a lookup by username
+        String username = authentication.getName();
+        UUID userId = userRepository.findByUsername(username)
+                .map(User::getId)
+                .orElseThrow(() -> {
+                    logger.error("Authenticated user not found in repository: {}", username);
+                    return new UserNotFoundException("Authenticated user not found");
+                });
+        if (attributes != null) {
+            attributes.setAttribute(USER_ID_ATTRIBUTE, userId, RequestAttributes.SCOPE_REQUEST);
+        }
+        return userId;
+    }
+
+    /**
+     * Throws unless the account exists and belongs to the current user. Costs one indexed existence query
+     * the first time an account is checked in a request and nothing afterwards.
+     */
+    public void requireAccountOwnership(UUID accountId) {
+        Set<UUID> owned = ownedAccounts();
+        if (owned != null && owned.contains(accountId)) {
+            return;
+        }
+
+        UUID userId = currentUserId();
+        if (!bankAccountRepository.existsByIdAndUserId(accountId, userId)) {
+            throw denial(accountId, userId, bankAccountRepository.existsById(accountId));
+        }
+        if (owned != null) {
+            owned.add(accountId);
+        }
+        logger.debug("User {} authorized to access bank account {}", userId, accountId);
+    }
+
+    /**
+     * Ownership check for an account that has already been loaded, recording the result for the rest of the request.
+     */
+    public void requireOwner(BankAccount account) {
+        UUID userId = currentUserId();
+        if (account.getUser() == null || !userId.equals(account.getUser().getId())) {
+            throw denial(account.getId(), userId, true);
+        }
+        Set<UUID> owned = ownedAccounts();
+        if (owned != null) {
+            owned.add(account.getId());
+        }
+    }
+
+    private RuntimeException denial(UUID accountId, UUID userId, boolean accountExists) {
+        if (!accountExists) {
+            logger.warn("Bank account not found: {}", accountId);
+            return new BankAccountNotFoundException("Bank account not found");
+        }
+        logger.warn("Access denied for user {} to bank account {}", userId, accountId);
+        apiMetrics.ownershipDenied();
+        return new AccessDeniedException("You are not authorized to access this bank account.");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<UUID> ownedAccounts() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object owned = attributes.getAttribute(OWNED_ACCOUNTS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (owned == null) {
+            owned = new HashSet<UUID>();
+            attributes.setAttribute(OWNED_ACCOUNTS_ATTRIBUTE, owned, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Set<UUID>) owned;
+    }
+}
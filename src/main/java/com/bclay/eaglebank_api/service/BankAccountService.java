@@ -1,71 +1,86 @@
 package com.bclay.eaglebank_api.service;
 
 import com.bclay.eaglebank_api.exception.BankAccountNotFoundException;
-import com.bclay.eaglebank_api.exception.UserNotFoundException;
 import com.bclay.eaglebank_api.model.BankAccount;
-import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.model.Money;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionExportRow;
+import com.bclay.eaglebank_api.model.TransactionType;
 import com.bclay.eaglebank_api.repository.BankAccountRepository;
-import com.bclay.eaglebank_api.repository.UserRepository;
+import com.bclay.eaglebank_api.repository.LedgerSnapshotRepository;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Service
+@Timed("eaglebank.service")
 public class BankAccountService {
 
     private static final Logger logger = LoggerFactory.getLogger(BankAccountService.class);
 
     private final BankAccountRepository bankAccountRepository;
-    private final UserRepository userRepository;
-
-    public BankAccountService(BankAccountRepository bankAccountRepository, UserRepository userRepository) {
+    private final TransactionRepository transactionRepository;
+    private final LedgerSnapshotRepository ledgerSnapshotRepository;
+    private final AccountAggregateService accountAggregateService;
+    private final AuthorizationContext authorizationContext;
+    private final AccountCache accountCache;
+
+    public BankAccountService(BankAccountRepository bankAccountRepository, TransactionRepository transactionRepository,
+                              LedgerSnapshotRepository ledgerSnapshotRepository,
+                              AccountAggregateService accountAggregateService, AuthorizationContext authorizationContext,
+                              AccountCache accountCache) {
         this.bankAccountRepository = bankAccountRepository;
-        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerSnapshotRepository = ledgerSnapshotRepository;
+        this.accountAggregateService = accountAggregateService;
+        this.authorizationContext = authorizationContext;
+        this.accountCache = accountCache;
     }
 
+    @Transactional
     public BankAccount createAccount(BankAccount account) {
         logger.info("Creating bank account for user ID: {}", account.getUser().getId());
-        return bankAccountRepository.save(account);
+        long openingBalance = account.getBalance() != null ? account.getBalance() : 0L;
+        if (openingBalance < 0) {
+            throw new IllegalArgumentException("Opening balance must not be negative");
+        }
+        account.setBalance(openingBalance);
+        BankAccount saved = bankAccountRepository.save(account);
+
+        // the balance is a projection of the ledger, so an opening balance is posted like any other deposit
+        if (openingBalance > 0) {
+            Transaction opening = transactionRepository.save(new Transaction(null, TransactionType.DEPOSIT,
+                    openingBalance, LocalDateTime.now(), saved));
+            accountAggregateService.record(saved.getId(), 0, List.of(TransactionExportRow.of(opening)));
+        }
+        accountCache.evictUser(saved.getUser().getId());
+        return saved;
     }
 
     public BankAccount getAccountById(UUID accountId) {
         logger.debug("Fetching bank account by ID: {}", accountId);
-        BankAccount account = bankAccountRepository.findById(accountId)
+        BankAccount account = accountCache.get(accountId)
                 .orElseThrow(() -> {
                     logger.warn("Bank account not found: {}", accountId);
                     return new BankAccountNotFoundException("Bank account not found");
                 });
 
-        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-        logger.debug("Authenticated user: {}", currentUsername);
-
-        UUID accountOwnerId = account.getUser().getId();
-
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> {
-                    logger.error("Authenticated user not found in repository: {}", currentUsername);
-                    return new UserNotFoundException("Authenticated user not found");
-                });
-
-        if (!accountOwnerId.equals(currentUser.getId())) {
-            logger.warn("Access denied for user {} to bank account {}", currentUsername, accountId);
-            throw new AccessDeniedException("You are not authorized to access this bank account.");
-        }
-
-        logger.debug("User {} authorized to access bank account {}", currentUsername, accountId);
+        authorizationContext.requireOwner(account);
         return account;
     }
 
     public List<BankAccount> getAccountsByUserId(UUID userId) {
         logger.debug("Fetching all bank accounts for user ID: {}", userId);
-        return bankAccountRepository.findByUserId(userId);
+        return accountCache.getByUser(userId);
     }
 
+    @Transactional
     public void deleteAccount(UUID accountId) {
         logger.info("Deleting bank account with ID: {}", accountId);
 
@@ -75,20 +90,14 @@ public class BankAccountService {
                     return new BankAccountNotFoundException("Bank account not found");
                 });
 
-        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> {
-                    logger.error("Authenticated user not found in repository: {}", currentUsername);
-                    return new UserNotFoundException("Authenticated user not found");
-                });
-
-        if (!account.getUser().getId().equals(currentUser.getId())) {
-            logger.warn("Access denied: user {} attempted to delete bank account {}", currentUsername, accountId);
-            throw new AccessDeniedException("You are not authorized to delete this bank account.");
-        }
+        authorizationContext.requireOwner(account);
 
+        ledgerSnapshotRepository.deleteById(accountId);
+        accountAggregateService.deleteAccount(accountId);
         bankAccountRepository.delete(account);
-        logger.info("Bank account {} deleted by user {}", accountId, currentUsername);
+        accountCache.evictAccount(accountId);
+        accountCache.evictUser(account.getUser().getId());
+        logger.info("Bank account {} deleted", accountId);
     }
 
     public BankAccount updateAccount(UUID accountId, BankAccount updatedAccount) {
@@ -99,34 +108,25 @@ public class BankAccountService {
                     return new BankAccountNotFoundException("Bank account not found");
                 });
 
-        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-        if (!existingAccount.getUser().getUsername().equals(currentUsername)) {
-            logger.warn("Access denied: user {} attempted to update bank account {}", currentUsername, accountId);
-            throw new AccessDeniedException("You are not authorized to update this bank account.");
-        }
+        authorizationContext.requireOwner(existingAccount);
 
         if (updatedAccount.getAccountNumber() != null) {
             existingAccount.setAccountNumber(updatedAccount.getAccountNumber());
             logger.debug("Updated account number to {}", updatedAccount.getAccountNumber());
         }
-        if (updatedAccount.getBalance() != null) {
-            existingAccount.setBalance(updatedAccount.getBalance());
-            logger.debug("Updated balance to {}", updatedAccount.getBalance());
+        if (updatedAccount.getBalance() != null && !updatedAccount.getBalance().equals(existingAccount.getBalance())) {
+            logger.warn("Rejected direct balance change on account {} to {}", accountId, Money.format(updatedAccount.getBalance()));
+            throw new IllegalArgumentException("Balance can only change through transactions");
         }
 
-        return bankAccountRepository.save(existingAccount);
+        BankAccount saved = bankAccountRepository.save(existingAccount);
+        accountCache.evictAccount(accountId);
+        return saved;
     }
 
     public List<BankAccount> getAccountsForCurrentUser() {
-        UUID currentUserId = getCurrentUserId();
+        UUID currentUserId = authorizationContext.currentUserId();
         logger.debug("Fetching bank accounts for current user ID: {}", currentUserId);
-        return bankAccountRepository.findByUserId(currentUserId);
-    }
-
-    private UUID getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String userIdString = authentication.getName(); // assuming username is UUID string
-        logger.debug("Current authenticated user ID string: {}", userIdString);
-        return UUID.fromString(userIdString);
+        return accountCache.getByUser(currentUserId);
     }
 }
@@ -0,0 +1,251 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.exception.IdempotencyConflictException;
+import com.bclay.eaglebank_api.model.IdempotencyRecordState;
+import com.bclay.eaglebank_api.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request once per Idempotency-Key and replays its response to retries. A request claims its key by inserting
+ * the key's row, so exactly one request runs per key across every instance, and records its response in the same
+ * database transaction as its own writes: either both commit or neither does. A duplicate that arrives while the
+ * first request is still running polls the row for its response, and takes the key over if the claim's lease runs
+ * out. Completed responses are also kept in a bounded in-memory cache. Failed requests are not recorded and may be
+ * retried.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final AuthorizationContext authorizationContext;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate claimTemplate;
+    private final Duration ttl;
+    private final Duration claimLease;
+    private final Duration pollInterval;
+    private final Cache<String, StoredResponse> completed;
+
+    public IdempotencyService(IdempotencyRecordRepository repository, AuthorizationContext authorizationContext,
+                              ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                              @Value("${eaglebank.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${eaglebank.idempotency.cache.maximum-size:100000}") long maximumSize,
+                              @Value("${eaglebank.idempotency.claim-lease:30s}") Duration claimLease,
+                              @Value("${eaglebank.idempotency.poll-interval:100ms}") Duration pollInterval) {
+        this.repository = repository;
+        this.authorizationContext = authorizationContext;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // claims commit on their own, so other instances see them while the request runs
+        this.claimTemplate = new TransactionTemplate(transactionManager);
+        this.claimTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.claimLease = claimLease;
+        this.pollInterval = pollInterval;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Runs the action unless the current user already made this request with this key, in which case the recorded
+     * response is returned. The same key with a different operation or body is rejected. The action runs in a
+     * transaction that also records its response; services it calls join that transaction.
+     */
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request, Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = authorizationContext.currentUserId() + ":" + key;
+        String fingerprint = fingerprint(operation, request);
+
+        StoredResponse stored = completed.getIfPresent(id);
+        if (stored != null) {
+            return replay(key, stored, fingerprint, responseType);
+        }
+
+        while (true) {
+            String claimToken = UUID.randomUUID().toString();
+            if (claim(id, fingerprint, claimToken)) {
+                return run(key, id, fingerprint, claimToken, action);
+            }
+
+            IdempotencyRecordState state = repository.findState(id).orElse(null);
+            if (state == null) {
+                // the holder failed and released the key, or the record was purged: claim it again
+                continue;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (state.expired(now)) {
+                if (takeOver(id, fingerprint, claimToken, now)) {
+                    logger.warn("Took over expired claim on idempotency key {}", key);
+                    return run(key, id, fingerprint, claimToken, action);
+                }
+                continue;
+            }
+            requireSameRequest(key, state.fingerprint(), fingerprint);
+            if (state.completed()) {
+                stored = new StoredResponse(state.fingerprint(), state.status(), state.body());
+                completed.put(id, stored);
+                return replay(key, stored, fingerprint, responseType);
+            }
+            logger.debug("Waiting for in-flight request with idempotency key {}", key);
+            sleep(pollInterval);
+        }
+    }
+
+    public CacheStats stats() {
+        return completed.stats();
+    }
+
+    @Scheduled(fixedDelayString = "${eaglebank.idempotency.purge-interval:1h}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        logger.info("Purged {} expired idempotency records", purged);
+    }
+
+    private boolean claim(String id, String fingerprint, String claimToken) {
+        try {
+            claimTemplate.executeWithoutResult(status ->
+                    repository.claim(id, fingerprint, claimToken, LocalDateTime.now().plus(claimLease)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private boolean takeOver(String id, String fingerprint, String claimToken, LocalDateTime now) {
+        Integer updated = claimTemplate.execute(status ->
+                repository.takeOver(id, fingerprint, claimToken, now.plus(claimLease), now));
+        return updated != null && updated == 1;
+    }
+
+    private <T> ResponseEntity<T> run(String key, String id, String fingerprint, String claimToken,
+                                      Supplier<ResponseEntity<T>> action) {
+        Completion<T> completion;
+        try {
+            completion = transactionTemplate.execute(status -> {
+                ResponseEntity<T> response = action.get();
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    repository.release(id, claimToken);
+                    return new Completion<>(response, null);
+                }
+                StoredResponse stored = new StoredResponse(fingerprint, response.getStatusCode().value(),
+                        toJson(response.getBody()));
+                if (repository.complete(id, claimToken, stored.status(), stored.body(),
+                        LocalDateTime.now().plus(ttl)) == 0) {
+                    // the lease ran out and another request took the key over; rolling back keeps this one from
+                    // being applied twice
+                    logger.warn("Lost claim on idempotency key {}, rolling back", key);
+                    throw new IdempotencyConflictException(HEADER + " is being processed by another request");
+                }
+                return new Completion<>(response, stored);
+            });
+        } catch (RuntimeException e) {
+            release(id, claimToken);
+            throw e;
+        }
+        if (completion.stored() != null) {
+            completed.put(id, completion.stored());
+        }
+        return completion.response();
+    }
+
+    private void release(String id, String claimToken) {
+        try {
+            claimTemplate.executeWithoutResult(status -> repository.release(id, claimToken));
+        } catch (RuntimeException e) {
+            // the claim's lease expires anyway, after which a retry takes the key over
+            logger.warn("Could not release claim on idempotency record {}", id, e);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(String key, StoredResponse stored, String fingerprint, Class<T> responseType) {
+        requireSameRequest(key, stored.fingerprint(), fingerprint);
+        logger.info("Replaying response for idempotency key {}", key);
+        try {
+            return ResponseEntity.status(stored.status())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(objectMapper.readValue(stored.body(), responseType));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for idempotency key " + key + " is unreadable", e);
+        }
+    }
+
+    private static void requireSameRequest(String key, String recorded, String fingerprint) {
+        if (!recorded.equals(fingerprint)) {
+            logger.warn("Idempotency key {} reused for a different request", key);
+            throw new IllegalArgumentException(HEADER + " was already used for a different request");
+        }
+    }
+
+    private static void sleep(Duration interval) {
+        try {
+            Thread.sleep(interval.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an idempotent request", e);
+        }
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(operation.getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) '\n');
+            sha256.update(objectMapper.writeValueAsBytes(request));
+            return Base64.getEncoder().encodeToString(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be serialized", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be serialized", e);
+        }
+    }
+
+    private record StoredResponse(String fingerprint, int status, String body) {}
+
+    private record Completion<T>(ResponseEntity<T> response, StoredResponse stored) {}
+}
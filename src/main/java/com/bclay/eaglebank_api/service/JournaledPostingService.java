@@ -0,0 +1,365 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.exception.BankAccountNotFoundException;
+import com.bclay.eaglebank_api.model.JournalCheckpoint;
+import com.bclay.eaglebank_api.model.JournalEntry;
+import com.bclay.eaglebank_api.model.Money;
+import com.bclay.eaglebank_api.model.TimeOrderedIdGenerator;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionExportRow;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.JournalCheckpointRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind posting: a posting is acknowledged once it is durable in the {@link TransactionJournal}, and a single
+ * applier thread moves journaled postings into the database in batches, one database commit per batch.
+ * <p>
+ * Withdrawals are checked against the stored balance plus the postings still waiting to be applied. The applier holds
+ * the same per-account locks while it commits, so a check never sees a batch counted twice or not at all. Postings
+ * that commit directly hold them too, through {@link #lockForDirectPosting}.
+ * <p>
+ * A posting is stamped when it is accepted but only inserted when applied, which can be much later after a database
+ * outage or on startup replay. {@link #oldestUnapplied()} tells the ledger how far back such inserts can still land.
+ */
+@Service
+@ConditionalOnProperty(name = "eaglebank.transactions.journal.enabled", havingValue = "true")
+public class JournaledPostingService implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournaledPostingService.class);
+
+    private static final String CHECKPOINT = "transactions";
+    private static final int LOCK_STRIPES = 256;
+    private static final Duration SHUTDOWN_DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final String INSERT_TRANSACTION =
+            "insert into transaction (id, type, amount, timestamp, account_id) values (?, ?, ?, ?, ?)";
+    private static final String APPLY_BALANCE_DELTA =
+            "update bank_account set balance = balance + ?, version = version + 1 where id = ?";
+
+    private final BankAccountRepository bankAccountRepository;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApiMetrics apiMetrics;
+    private final AccountAggregateService accountAggregateService;
+    private final AccountCache accountCache;
+    private final TransactionJournal journal;
+    private final int applyBatchSize;
+    private final DistributionSummary groupSize;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final Map<UUID, Long> pendingDeltas = new ConcurrentHashMap<>();
+    // timestamps of accepted postings not yet applied, with their counts; guarded by its own monitor
+    private final NavigableMap<LocalDateTime, Integer> unappliedTimestamps = new TreeMap<>();
+    private final BlockingQueue<JournalEntry> unapplied = new LinkedBlockingQueue<>();
+    private final Thread applier;
+    private volatile boolean stopping;
+
+    public JournaledPostingService(BankAccountRepository bankAccountRepository,
+                                   JournalCheckpointRepository checkpointRepository, JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager, ApiMetrics apiMetrics,
+                                   AccountAggregateService accountAggregateService, AccountCache accountCache,
+                                   MeterRegistry registry,
+                                   @Value("${eaglebank.transactions.journal.directory:data/journal}") Path directory,
+                                   @Value("${eaglebank.transactions.journal.segment-size:64MB}") DataSize segmentSize,
+                                   @Value("${eaglebank.transactions.journal.max-group-size:512}") int maxGroupSize,
+                                   @Value("${eaglebank.transactions.journal.apply-batch-size:500}") int applyBatchSize) {
+        this.bankAccountRepository = bankAccountRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.apiMetrics = apiMetrics;
+        this.accountAggregateService = accountAggregateService;
+        this.accountCache = accountCache;
+        this.journal = new TransactionJournal(directory, segmentSize.toBytes(), maxGroupSize);
+        this.applyBatchSize = applyBatchSize;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.applier = new Thread(this::applyLoop, "journal-applier");
+        this.applier.setDaemon(true);
+
+        this.groupSize = DistributionSummary.builder("eaglebank.journal.group.size")
+                .description("Postings made durable by one journal fsync")
+                .register(registry);
+        Gauge.builder("eaglebank.journal.unapplied", unapplied, Queue::size)
+                .description("Journaled postings not yet applied to the database")
+                .register(registry);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        long checkpoint = checkpointRepository.findById(CHECKPOINT)
+                .map(JournalCheckpoint::getAppliedSequence)
+                .orElse(0L);
+        List<JournalEntry> recovered = journal.recover(checkpoint);
+        for (JournalEntry entry : recovered) {
+            pendingDeltas.merge(entry.accountId(), entry.delta(), Long::sum);
+            trackUnapplied(entry.timestamp());
+        }
+        unapplied.addAll(recovered);
+        if (!recovered.isEmpty()) {
+            logger.info("Replaying {} journaled postings after sequence {}", recovered.size(), checkpoint);
+        }
+
+        journal.start(entries -> {
+            groupSize.record(entries.size());
+            unapplied.addAll(entries);
+        });
+        applier.start();
+    }
+
+    /**
+     * Journals a posting to an account the caller has already been authorised for. Returns once it is durable;
+     * it shows up in the account's balance and history when the applier reaches it.
+     */
+    public Transaction post(UUID accountId, TransactionType type, long amount) {
+        long delta = type.signed(amount);
+
+        ReentrantLock lock = lockFor(accountId);
+        lock.lock();
+        try {
+            if (delta < 0) {
+                long balance = bankAccountRepository.findBalanceById(accountId)
+                        .orElseThrow(() -> new BankAccountNotFoundException("Bank account not found"));
+                long available = balance + pendingDeltas.getOrDefault(accountId, 0L);
+                if (available + delta < 0) {
+                    logger.warn("Insufficient balance for withdrawal: accountId={}, available={}, requested={}",
+                            accountId, Money.format(available), Money.format(amount));
+                    apiMetrics.insufficientBalance();
+                    throw new IllegalArgumentException("Insufficient balance");
+                }
+            }
+            pendingDeltas.merge(accountId, delta, Long::sum);
+        } finally {
+            lock.unlock();
+        }
+
+        UUID transactionId = TimeOrderedIdGenerator.next();
+        LocalDateTime timestamp = stampUnapplied();
+        try {
+            journal.append(transactionId, accountId, type, amount, timestamp).join();
+        } catch (CompletionException e) {
+            releasePending(accountId, delta);
+            untrackUnapplied(timestamp);
+            logger.error("Could not journal posting for account {}", accountId, e.getCause());
+            throw new IllegalStateException("Posting could not be recorded", e.getCause());
+        }
+        return new Transaction(transactionId, type, amount, timestamp, null);
+    }
+
+    /**
+     * For postings that commit straight to the database while the journal is enabled, such as batches: locks the
+     * accounts as {@link #post} does until the current transaction completes, and returns each account's postings
+     * still waiting to be applied, which its balance check must count. Call it before taking the accounts' row locks,
+     * the order the applier takes them in.
+     */
+    public Map<UUID, Long> lockForDirectPosting(Collection<UUID> accountIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Direct postings must run in a transaction");
+        }
+        List<ReentrantLock> held = lockAll(accountIds);
+        // released on the thread that took them, once the postings are committed or rolled back
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                held.forEach(ReentrantLock::unlock);
+            }
+        });
+        Map<UUID, Long> pending = new HashMap<>();
+        for (UUID accountId : accountIds) {
+            pending.put(accountId, pendingDeltas.getOrDefault(accountId, 0L));
+        }
+        return pending;
+    }
+
+    /**
+     * The timestamp of the oldest posting accepted but not yet in the database, if any. Ledger snapshots must keep
+     * their watermark before it, or the posting would be inserted behind one.
+     */
+    public Optional<LocalDateTime> oldestUnapplied() {
+        synchronized (unappliedTimestamps) {
+            return unappliedTimestamps.isEmpty() ? Optional.empty() : Optional.of(unappliedTimestamps.firstKey());
+        }
+    }
+
+    // stamped and tracked under one monitor, so a reader of oldestUnapplied() never misses an earlier stamp
+    private LocalDateTime stampUnapplied() {
+        synchronized (unappliedTimestamps) {
+            LocalDateTime timestamp = LocalDateTime.now();
+            unappliedTimestamps.merge(timestamp, 1, Integer::sum);
+            return timestamp;
+        }
+    }
+
+    private void trackUnapplied(LocalDateTime timestamp) {
+        synchronized (unappliedTimestamps) {
+            unappliedTimestamps.merge(timestamp, 1, Integer::sum);
+        }
+    }
+
+    private void untrackUnapplied(LocalDateTime timestamp) {
+        synchronized (unappliedTimestamps) {
+            unappliedTimestamps.computeIfPresent(timestamp, (t, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private void applyLoop() {
+        List<JournalEntry> batch = new ArrayList<>(applyBatchSize);
+        while (!stopping || !unapplied.isEmpty()) {
+            try {
+                JournalEntry first = unapplied.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                unapplied.drainTo(batch, applyBatchSize - 1);
+                if (!applyWithRetry(batch)) {
+                    return;
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // false when shutting down before the batch could be applied; the journal still has it for the next start
+    private boolean applyWithRetry(List<JournalEntry> batch) throws InterruptedException {
+        long backoffMillis = 100;
+        while (true) {
+            try {
+                apply(batch);
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                if (batch.size() == 1) {
+                    skip(batch.get(0), e);
+                    return true;
+                }
+                // a posting to an account deleted since it was accepted must not hold back the rest of the batch
+                for (JournalEntry entry : batch) {
+                    if (!applyWithRetry(List.of(entry))) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (RuntimeException e) {
+                if (stopping) {
+                    return false;
+                }
+                logger.error("Applying {} journaled postings failed, retrying in {} ms", batch.size(), backoffMillis, e);
+                Thread.sleep(backoffMillis);
+                backoffMillis = Math.min(backoffMillis * 2, 5_000);
+            }
+        }
+    }
+
+    private void apply(List<JournalEntry> batch) {
+        Map<UUID, Long> deltas = new TreeMap<>(BankAccountRepository.LOCK_ORDER);
+        Map<UUID, List<TransactionExportRow>> postings = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (JournalEntry entry : batch) {
+            deltas.merge(entry.accountId(), entry.delta(), Long::sum);
+            postings.computeIfAbsent(entry.accountId(), id -> new ArrayList<>()).add(new TransactionExportRow(
+                    entry.transactionId(), entry.type(), entry.amount(), entry.timestamp()));
+            rows.add(new Object[]{entry.transactionId(), entry.type().name(), entry.amount(),
+                    Timestamp.valueOf(entry.timestamp()), entry.accountId()});
+        }
+        long lastSequence = batch.get(batch.size() - 1).sequence();
+
+        List<ReentrantLock> held = lockAll(deltas.keySet());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // balances were checked when the postings were accepted; rows are updated in id order like batch postings
+                deltas.forEach((accountId, delta) -> {
+                    jdbcTemplate.update(APPLY_BALANCE_DELTA, delta, accountId);
+                    accountCache.evictAccount(accountId);
+                });
+                jdbcTemplate.batchUpdate(INSERT_TRANSACTION, rows);
+                postings.forEach((accountId, posted) -> {
+                    long balanceAfter = bankAccountRepository.findBalanceById(accountId).orElseThrow();
+                    accountAggregateService.record(accountId, balanceAfter - deltas.get(accountId), posted);
+                });
+                checkpointRepository.save(new JournalCheckpoint(CHECKPOINT, lastSequence));
+            });
+            deltas.forEach(this::releasePending);
+            batch.forEach(entry -> untrackUnapplied(entry.timestamp()));
+        } finally {
+            held.forEach(ReentrantLock::unlock);
+        }
+        journal.release(lastSequence);
+        logger.debug("Applied {} journaled postings up to sequence {}", batch.size(), lastSequence);
+    }
+
+    private void skip(JournalEntry entry, RuntimeException cause) {
+        logger.error("Dropping journaled posting {} (sequence {}) for account {}: it can no longer be applied",
+                entry.transactionId(), entry.sequence(), entry.accountId(), cause);
+        transactionTemplate.executeWithoutResult(status ->
+                checkpointRepository.save(new JournalCheckpoint(CHECKPOINT, entry.sequence())));
+        releasePending(entry.accountId(), entry.delta());
+        untrackUnapplied(entry.timestamp());
+        apiMetrics.journalEntrySkipped();
+    }
+
+    private void releasePending(UUID accountId, long delta) {
+        pendingDeltas.compute(accountId, (id, pending) -> {
+            long remaining = (pending != null ? pending : 0L) - delta;
+            return remaining == 0 ? null : remaining;
+        });
+    }
+
+    private ReentrantLock lockFor(UUID accountId) {
+        return locks[Math.floorMod(accountId.hashCode(), locks.length)];
+    }
+
+    private List<ReentrantLock> lockAll(Collection<UUID> accountIds) {
+        SortedSet<Integer> stripes = new TreeSet<>();
+        accountIds.forEach(id -> stripes.add(Math.floorMod(id.hashCode(), locks.length)));
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+            held.add(locks[stripe]);
+        }
+        return held;
+    }
+
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        journal.close();
+        stopping = true;
+        applier.join(SHUTDOWN_DRAIN_TIMEOUT.toMillis());
+        if (applier.isAlive()) {
+            logger.warn("{} journaled postings left unapplied at shutdown, they will be applied on the next start",
+                    unapplied.size());
+            applier.interrupt();
+        }
+    }
+}
@@ -8,13 +8,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.*;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
@@ -22,11 +22,11 @@ public class JwtFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtFilter.class);
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final ApiMetrics apiMetrics;
 
-    public JwtFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService) {
+    public JwtFilter(JwtUtil jwtUtil, ApiMetrics apiMetrics) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.apiMetrics = apiMetrics;
     }
 
     @Override
@@ -49,20 +49,21 @@ public class JwtFilter extends OncePerRequestFilter {
 
         if (token != null) {
             logger.debug("Token extracted from request.");
-            if (jwtUtil.validateToken(token)) {
-                logger.debug("Token is valid.");
-                String username = jwtUtil.extractUsername(token);
-                logger.debug("Extracted username from token: {}", username);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // the principal is rebuilt from the signed claims alone, no database read per request
+            Optional<AuthenticatedUser> principal = jwtUtil.authenticate(token);
+            if (principal.isPresent()) {
+                String username = principal.get().getUsername();
+                logger.debug("Token is valid. Extracted username from token: {}", username);
 
                 UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(principal.get(), null, principal.get().getAuthorities());
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
 
                 logger.debug("Authentication set for user: {}", username);
             } else {
-                logger.warn("Invalid JWT token.");
+                logger.warn("Invalid or revoked JWT token.");
+                apiMetrics.tokenRejected();
             }
         } else {
             logger.debug("No JWT token found in request.");
@@ -71,6 +72,12 @@ public class JwtFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // streamed responses finish on an async dispatch, which must be authenticated again
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     private String extractToken(HttpServletRequest request) {
         String header = request.getHeader("Authorization");
         if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
@@ -1,26 +1,71 @@
 package com.bclay.eaglebank_api.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
+    static final String TOKEN_VERSION_CLAIM = "ver";
+
     private final long EXPIRATION_MS = 86400000; // 1 day
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    // verified claims keyed by a SHA-256 digest of the compact token, never kept past the token's exp
+    private final Cache<String, Claims> verifiedTokens;
+    private final TokenRevocationService tokenRevocationService;
+
+    public JwtUtil(@Value("${eaglebank.security.jwt.verified-token-cache.maximum-size:10000}") long maximumSize,
+                   @Value("${eaglebank.security.jwt.verified-token-cache.max-ttl:15m}") Duration maxTtl,
+                   TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(maxTtl))
+                .recordStats()
+                .build();
+    }
 
-    public String generateToken(String username) {
+    /**
+     * Issues a token carrying everything needed to rebuild the principal, so requests authenticate without a database read.
+     */
+    public String generateToken(AuthenticatedUser user) {
+        String username = user.getUsername();
         logger.debug("Generating JWT token for user: {}", username);
+        List<String> roles = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
         String token = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
+                .claim(USER_ID_CLAIM, user.getId().toString())
+                .claim(ROLES_CLAIM, roles)
+                .claim(TOKEN_VERSION_CLAIM, tokenRevocationService.currentVersion(user.getId()))
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MS))
                 .signWith(key)
@@ -29,15 +74,68 @@ public class JwtUtil {
         return token;
     }
 
+    /**
+     * Verifies the token signature and expiry once and returns its claims, or empty when the token is invalid.
+     */
+    public Optional<Claims> verifyToken(String token) {
+        logger.debug("Verifying token.");
+        try {
+            return Optional.of(parseClaims(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.warn("Invalid token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Rebuilds the principal from a valid, unrevoked token's claims, or returns empty.
+     */
+    public Optional<AuthenticatedUser> authenticate(String token) {
+        Optional<Claims> verified = verifyToken(token);
+        if (verified.isEmpty()) {
+            return Optional.empty();
+        }
+        Claims claims = verified.get();
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        Integer tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        if (userId == null || tokenVersion == null || claims.getSubject() == null) {
+            logger.warn("Token is missing required claims.");
+            return Optional.empty();
+        }
+
+        AuthenticatedUser principal;
+        try {
+            principal = new AuthenticatedUser(UUID.fromString(userId), claims.getSubject(), "", authorities(claims));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Token carries an invalid user ID: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (tokenRevocationService.isRevoked(claims.getId(), principal.getId(), tokenVersion)) {
+            logger.warn("Rejected revoked token {} for user {}", claims.getId(), claims.getSubject());
+            return Optional.empty();
+        }
+        return Optional.of(principal);
+    }
+
+    /**
+     * Revokes a single token until it expires. Invalid tokens are ignored, they cannot authenticate anyway.
+     */
+    public void revokeToken(String token) {
+        verifyToken(token).ifPresent(claims -> {
+            String userId = claims.get(USER_ID_CLAIM, String.class);
+            try {
+                tokenRevocationService.revokeToken(claims.getId(), userId != null ? UUID.fromString(userId) : null,
+                        claims.getExpiration());
+            } catch (IllegalArgumentException e) {
+                logger.warn("Token carries an invalid user ID: {}", e.getMessage());
+            }
+        });
+    }
+
     public String extractUsername(String token) {
         logger.debug("Extracting username from token.");
         try {
-            String username = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
+            String username = parseClaims(token).getSubject();
             logger.debug("Username extracted: {}", username);
             return username;
         } catch (JwtException e) {
@@ -47,14 +145,76 @@ public class JwtUtil {
     }
 
     public boolean validateToken(String token) {
-        logger.debug("Validating token.");
+        return verifyToken(token).isPresent();
+    }
+
+    public CacheStats verifiedTokenCacheStats() {
+        return verifiedTokens.stats();
+    }
+
+    private Claims parseClaims(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Token is empty");
+        }
+
+        String digest = digest(token);
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            if (cached.getExpiration().after(new Date())) {
+                logger.debug("Token verified from cache.");
+                return cached;
+            }
+            verifiedTokens.invalidate(digest);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, claims);
+        }
+        return claims;
+    }
+
+    private static Collection<GrantedAuthority> authorities(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.toString()))
+                .toList();
+    }
+
+    private static String digest(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            logger.debug("Token is valid.");
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            logger.warn("Invalid token: {}", e.getMessage());
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, Claims> {
+
+        private final long maxTtlNanos;
+
+        private TokenExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return Math.max(0, Math.min(maxTtlNanos, Duration.ofMillis(remainingMillis).toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
@@ -0,0 +1,280 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.LedgerSnapshot;
+import com.bclay.eaglebank_api.model.LedgerVerificationReport;
+import com.bclay.eaglebank_api.model.LedgerVerificationReport.Drift;
+import com.bclay.eaglebank_api.model.TransactionExportRow;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.LedgerSnapshotRepository;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Treats the transaction rows as the append-only ledger and {@code BankAccount.balance} as its projection.
+ * Snapshots fold the ledger up to a watermark so replays stay short; the verifier replays accounts in parallel
+ * and reports every account whose balance or snapshot disagrees with its entries.
+ */
+@Service
+@Timed("eaglebank.service")
+public class LedgerService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerService.class);
+
+    private final TransactionRepository transactionRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final LedgerSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApiMetrics apiMetrics;
+    private final Duration settleLag;
+    private final JournaledPostingService journaledPosting;
+    private final ExecutorService verifierPool;
+
+    public LedgerService(TransactionRepository transactionRepository, BankAccountRepository bankAccountRepository,
+                         LedgerSnapshotRepository snapshotRepository, PlatformTransactionManager transactionManager,
+                         ApiMetrics apiMetrics, ObjectProvider<JournaledPostingService> journaledPosting,
+                         @Value("${eaglebank.ledger.snapshot.settle-lag:5s}") Duration settleLag,
+                         @Value("${eaglebank.ledger.verifier.threads:4}") int verifierThreads) {
+        this.transactionRepository = transactionRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.apiMetrics = apiMetrics;
+        this.settleLag = settleLag;
+        this.journaledPosting = journaledPosting.getIfAvailable();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.verifierPool = Executors.newFixedThreadPool(verifierThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ledger-verifier-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(initialDelayString = "${eaglebank.ledger.snapshot.interval:5m}",
+            fixedDelayString = "${eaglebank.ledger.snapshot.interval:5m}")
+    public void snapshotAll() {
+        List<UUID> accountIds = bankAccountRepository.findAllIds();
+        logger.info("Taking ledger snapshots for {} accounts", accountIds.size());
+        for (UUID accountId : accountIds) {
+            try {
+                snapshot(accountId);
+            } catch (RuntimeException e) {
+                logger.error("Ledger snapshot failed for account {}", accountId, e);
+            }
+        }
+    }
+
+    /**
+     * Folds the entries since the previous snapshot into a new one. The account is locked while folding, so no
+     * direct posting can commit behind the watermark, and the watermark stays before the oldest journaled posting
+     * not yet applied, which keeps its acceptance timestamp; the settle lag only guards against the wall clock
+     * stepping back.
+     */
+    public Optional<LedgerSnapshot> snapshot(UUID accountId) {
+        return transactionTemplate.execute(status -> {
+            if (bankAccountRepository.lockForAudit(accountId).isEmpty()) {
+                return Optional.<LedgerSnapshot>empty();
+            }
+            LedgerSnapshot previous = snapshotRepository.findById(accountId).orElse(null);
+            Fold fold = Fold.from(previous);
+            try (Stream<TransactionExportRow> entries = transactionRepository.streamLedger(accountId,
+                    fold.lastTimestamp, fold.lastId, watermarkBound())) {
+                entries.forEach(fold::apply);
+            }
+            if (previous != null && fold.count == previous.getEntryCount()) {
+                return Optional.of(previous);
+            }
+            LedgerSnapshot snapshot = snapshotRepository.save(new LedgerSnapshot(accountId, fold.balance, fold.count,
+                    fold.lastTimestamp, fold.lastId, fold.encodedDigest(), LocalDateTime.now()));
+            logger.debug("Ledger snapshot for account {} at {} entries", accountId, fold.count);
+            return Optional.of(snapshot);
+        });
+    }
+
+    private LocalDateTime watermarkBound() {
+        LocalDateTime bound = LocalDateTime.now().minus(settleLag);
+        if (journaledPosting == null) {
+            return bound;
+        }
+        // streamLedger's bound is exclusive, so the unapplied posting itself stays ahead of the watermark
+        return journaledPosting.oldestUnapplied()
+                .filter(oldest -> oldest.isBefore(bound))
+                .orElse(bound);
+    }
+
+    // incremental, so each run only replays what was posted since the last snapshot; drift feeds eaglebank.ledger.drift
+    @Scheduled(initialDelayString = "${eaglebank.ledger.verifier.interval:15m}",
+            fixedDelayString = "${eaglebank.ledger.verifier.interval:15m}")
+    public void verifyScheduled() {
+        verifyAll(false);
+    }
+
+    public LedgerVerificationReport verifyAll(boolean fullReplay) {
+        return verify(bankAccountRepository.findAllIds(), fullReplay);
+    }
+
+    /**
+     * Replays the given accounts in parallel. An incremental check replays from each account's snapshot; a full
+     * replay starts from the first entry and also proves the snapshot's balance, count and hash chain.
+     */
+    public LedgerVerificationReport verify(Collection<UUID> accountIds, boolean fullReplay) {
+        long started = System.nanoTime();
+        List<CompletableFuture<AccountCheck>> checks = new ArrayList<>(accountIds.size());
+        for (UUID accountId : accountIds) {
+            checks.add(CompletableFuture.supplyAsync(() -> verifyAccount(accountId, fullReplay), verifierPool));
+        }
+
+        int accountsChecked = 0;
+        long entriesReplayed = 0;
+        List<Drift> drifts = new ArrayList<>();
+        for (CompletableFuture<AccountCheck> check : checks) {
+            AccountCheck result = check.join();
+            if (result == null) {
+                continue; // account deleted in the meantime
+            }
+            accountsChecked++;
+            entriesReplayed += result.entriesReplayed();
+            if (result.drift() != null) {
+                logger.warn("Ledger drift on account {}: recorded={}, ledger={} ({})", result.drift().accountId(),
+                        result.drift().recordedBalance(), result.drift().ledgerBalance(), result.drift().reason());
+                apiMetrics.ledgerDrift();
+                drifts.add(result.drift());
+            }
+        }
+
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        logger.info("Ledger verification ({}) checked {} accounts, replayed {} entries in {} ms, {} drifted",
+                fullReplay ? "full" : "incremental", accountsChecked, entriesReplayed, elapsedMillis, drifts.size());
+        return new LedgerVerificationReport(fullReplay, accountsChecked, entriesReplayed, elapsedMillis, drifts);
+    }
+
+    private AccountCheck verifyAccount(UUID accountId, boolean fullReplay) {
+        return transactionTemplate.execute(status -> {
+            Optional<BankAccount> account = bankAccountRepository.lockForAudit(accountId);
+            if (account.isEmpty()) {
+                return null;
+            }
+            long recorded = account.get().getBalance();
+            LedgerSnapshot snapshot = snapshotRepository.findById(accountId).orElse(null);
+
+            Fold fold = fullReplay ? Fold.from(null) : Fold.from(snapshot);
+            long replayed = 0;
+            boolean snapshotProven = !fullReplay || snapshot == null || snapshot.getEntryCount() == 0;
+            try (Stream<TransactionExportRow> entries = transactionRepository.streamLedger(accountId,
+                    fold.lastTimestamp, fold.lastId, null)) {
+                for (Iterator<TransactionExportRow> it = entries.iterator(); it.hasNext(); ) {
+                    fold.apply(it.next());
+                    replayed++;
+                    if (!snapshotProven && fold.count == snapshot.getEntryCount()) {
+                        if (!fold.matches(snapshot)) {
+                            return new AccountCheck(replayed, new Drift(accountId, snapshot.getBalance(), fold.balance,
+                                    "Snapshot does not match the ledger up to its watermark"));
+                        }
+                        snapshotProven = true;
+                    }
+                }
+            }
+            if (!snapshotProven) {
+                return new AccountCheck(replayed, new Drift(accountId, snapshot.getBalance(), fold.balance,
+                        "Ledger has fewer entries than its snapshot"));
+            }
+            if (fold.balance != recorded) {
+                return new AccountCheck(replayed, new Drift(accountId, recorded, fold.balance,
+                        "Balance does not match the ledger"));
+            }
+            return new AccountCheck(replayed, null);
+        });
+    }
+
+    @Override
+    public void destroy() {
+        verifierPool.shutdownNow();
+    }
+
+    private record AccountCheck(long entriesReplayed, Drift drift) {}
+
+    /**
+     * Running state of a replay: balance, entry count, last key and the hash chain
+     * digest(n) = SHA-256(digest(n-1) || id || type || amount || timestamp), starting from 32 zero bytes.
+     */
+    private static final class Fold {
+
+        private final MessageDigest sha256;
+        private final ByteBuffer entry = ByteBuffer.allocate(16 + 8);
+        private byte[] digest;
+        private long balance;
+        private long count;
+        private LocalDateTime lastTimestamp;
+        private UUID lastId;
+
+        private Fold(long balance, long count, LocalDateTime lastTimestamp, UUID lastId, byte[] digest) {
+            try {
+                this.sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+            this.balance = balance;
+            this.count = count;
+            this.lastTimestamp = lastTimestamp;
+            this.lastId = lastId;
+            this.digest = digest;
+        }
+
+        static Fold from(LedgerSnapshot snapshot) {
+            if (snapshot == null) {
+                return new Fold(0, 0, null, null, new byte[32]);
+            }
+            return new Fold(snapshot.getBalance(), snapshot.getEntryCount(), snapshot.getWatermarkTimestamp(),
+                    snapshot.getWatermarkId(), Base64.getDecoder().decode(snapshot.getDigest()));
+        }
+
+        void apply(TransactionExportRow row) {
+            balance += row.type().signed(row.amount());
+            count++;
+            lastTimestamp = row.timestamp();
+            lastId = row.id();
+
+            entry.clear();
+            entry.putLong(row.id().getMostSignificantBits()).putLong(row.id().getLeastSignificantBits())
+                    .putLong(row.amount());
+            sha256.update(digest);
+            sha256.update(entry.flip());
+            sha256.update(row.type().name().getBytes(StandardCharsets.US_ASCII));
+            sha256.update(row.timestamp().toString().getBytes(StandardCharsets.US_ASCII));
+            digest = sha256.digest();
+        }
+
+        boolean matches(LedgerSnapshot snapshot) {
+            return balance == snapshot.getBalance()
+                    && count == snapshot.getEntryCount()
+                    && Objects.equals(lastId, snapshot.getWatermarkId())
+                    && encodedDigest().equals(snapshot.getDigest());
+        }
+
+        String encodedDigest() {
+            return Base64.getEncoder().encodeToString(digest);
+        }
+    }
+}
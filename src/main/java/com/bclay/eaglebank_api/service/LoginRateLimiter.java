@@ -0,0 +1,84 @@
+package com.bclay.eaglebank_api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per username and per client address, checked before a login attempt is allowed anywhere
+ * near BCrypt. Idle buckets are dropped, which is the same as refilling them to capacity.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final int usernameCapacity;
+    private final int addressCapacity;
+    private final long refillIntervalNanos;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public LoginRateLimiter(@Value("${eaglebank.security.login.rate-limit.username-capacity:5}") int usernameCapacity,
+                            @Value("${eaglebank.security.login.rate-limit.address-capacity:20}") int addressCapacity,
+                            @Value("${eaglebank.security.login.rate-limit.refill-interval:12s}") Duration refillInterval,
+                            @Value("${eaglebank.security.login.rate-limit.maximum-buckets:100000}") long maximumBuckets) {
+        this(usernameCapacity, addressCapacity, refillInterval, maximumBuckets, System::nanoTime);
+    }
+
+    LoginRateLimiter(int usernameCapacity, int addressCapacity, Duration refillInterval, long maximumBuckets,
+                     LongSupplier nanoTime) {
+        this.usernameCapacity = usernameCapacity;
+        this.addressCapacity = addressCapacity;
+        this.refillIntervalNanos = refillInterval.toNanos();
+        this.nanoTime = nanoTime;
+        // a bucket left idle long enough to refill completely carries no state worth keeping
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumBuckets)
+                .expireAfterAccess(refillInterval.multipliedBy(Math.max(usernameCapacity, addressCapacity)))
+                .build();
+    }
+
+    /**
+     * Takes one token from the address's bucket and then one from the username's; false when either is empty.
+     * An address over its limit never reaches the username's bucket, so it cannot lock the account's owner out.
+     */
+    public boolean tryAcquire(String username, String clientAddress) {
+        if (!bucket("address:" + clientAddress, addressCapacity).tryConsume()) {
+            return false;
+        }
+        return bucket("username:" + username, usernameCapacity).tryConsume();
+    }
+
+    private TokenBucket bucket(String key, int capacity) {
+        return buckets.get(key, k -> new TokenBucket(capacity, nanoTime.getAsLong()));
+    }
+
+    private final class TokenBucket {
+
+        private final int capacity;
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(int capacity, long now) {
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        synchronized boolean tryConsume() {
+            long now = nanoTime.getAsLong();
+            tokens = Math.min(capacity, tokens + (double) (now - refilledAt) / refillIntervalNanos);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.exception.TooManyRequestsException;
+import com.bclay.eaglebank_api.model.AuthRequest;
+import com.bclay.eaglebank_api.model.AuthResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password verification on its own small, bounded pool so a burst of logins queues here, behind a rate limiter,
+ * instead of occupying the request threads that serve every other endpoint.
+ */
+@Service
+public class LoginService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginService.class);
+
+    private final AuthenticationManager authManager;
+    private final JwtUtil jwtUtil;
+    private final LoginRateLimiter rateLimiter;
+    private final ApiMetrics apiMetrics;
+    private final ThreadPoolExecutor executor;
+
+    public LoginService(AuthenticationManager authManager, JwtUtil jwtUtil, LoginRateLimiter rateLimiter,
+                        ApiMetrics apiMetrics, MeterRegistry registry,
+                        @Value("${eaglebank.security.login.threads:0}") int threads,
+                        @Value("${eaglebank.security.login.queue-capacity:100}") int queueCapacity) {
+        this.authManager = authManager;
+        this.jwtUtil = jwtUtil;
+        this.rateLimiter = rateLimiter;
+        this.apiMetrics = apiMetrics;
+
+        // BCrypt is CPU-bound: more threads than cores only adds contention
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("eaglebank.login.queue.size", executor, e -> e.getQueue().size())
+                .description("Login attempts waiting for password verification")
+                .register(registry);
+        Gauge.builder("eaglebank.login.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Login attempts being verified")
+                .register(registry);
+    }
+
+    public CompletableFuture<AuthResponse> login(AuthRequest request, String clientAddress) {
+        if (!rateLimiter.tryAcquire(request.username(), clientAddress)) {
+            logger.warn("Login rate limit exceeded for username {} from {}", request.username(), clientAddress);
+            apiMetrics.loginRateLimited();
+            throw new TooManyRequestsException("Too many login attempts, try again later");
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(request), executor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Login queue full, rejecting attempt for username {}", request.username());
+            apiMetrics.loginQueueFull();
+            throw new TooManyRequestsException("Login service is busy, try again later");
+        }
+    }
+
+    private AuthResponse authenticate(AuthRequest request) {
+        Authentication authentication = authManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.username(), request.password())
+        );
+        return new AuthResponse(jwtUtil.generateToken((AuthenticatedUser) authentication.getPrincipal()));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,63 @@
+package com.bclay.eaglebank_api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded, expiring cache of the user data needed to rebuild a principal, keyed by username.
+ * Entries are immutable snapshots so that credential erasure on an authenticated principal
+ * never leaks back into the cache.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+    private final Cache<String, CachedPrincipal> cache;
+
+    public PrincipalCache(@Value("${eaglebank.security.principal-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${eaglebank.security.principal-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public CachedPrincipal get(String username, Function<String, CachedPrincipal> loader) {
+        return cache.get(username, loader);
+    }
+
+    public void evict(String username) {
+        logger.debug("Evicting cached principal for username: {}", username);
+        cache.invalidate(username);
+    }
+
+    public void evictUser(UUID userId) {
+        logger.debug("Evicting cached principals for user ID: {}", userId);
+        cache.asMap().values().removeIf(principal -> principal.userId().equals(userId));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public record CachedPrincipal(UUID userId, String username, String passwordHash) {}
+}
@@ -0,0 +1,94 @@
+package com.bclay.eaglebank_api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory revocation state for stateless JWTs. Single tokens (logout) go on a deny-list of token IDs
+ * that forgets each entry once the token has expired anyway; all tokens of a user (credential change,
+ * deletion) are revoked by bumping the user's token version, which new tokens embed as a claim.
+ * The deny-list is capped in size; an entry evicted to stay under the cap fails closed by revoking all of its
+ * user's tokens, so a logged-out token never becomes valid again.
+ * Signing keys are generated per process, so this state needs to live no longer than the process either.
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final Cache<String, Revocation> deniedTokenIds;
+    // only users that ever had their tokens revoked have an entry; everyone else is at version 0
+    private final ConcurrentMap<UUID, Integer> tokenVersions = new ConcurrentHashMap<>();
+
+    public TokenRevocationService(@Value("${eaglebank.security.jwt.deny-list.maximum-size:100000}") long maximumSize) {
+        this.deniedTokenIds = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                // runs atomically with the eviction, so there is no moment the token is accepted
+                .evictionListener((String tokenId, Revocation revocation, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE && revocation != null) {
+                        logger.warn("Deny-list full, revoking all tokens of user ID {} instead of token {}",
+                                revocation.userId(), tokenId);
+                        revokeAllForUser(revocation.userId());
+                    }
+                })
+                .build();
+    }
+
+    public int currentVersion(UUID userId) {
+        return tokenVersions.getOrDefault(userId, 0);
+    }
+
+    public void revokeToken(String tokenId, UUID userId, Date expiration) {
+        if (tokenId == null || userId == null || expiration == null || !expiration.after(new Date())) {
+            return;
+        }
+        logger.debug("Revoking token {}", tokenId);
+        deniedTokenIds.put(tokenId, new Revocation(userId, expiration.getTime()));
+    }
+
+    public void revokeAllForUser(UUID userId) {
+        int version = tokenVersions.merge(userId, 1, Integer::sum);
+        logger.info("Revoked all tokens for user ID {} (token version now {})", userId, version);
+    }
+
+    public boolean isRevoked(String tokenId, UUID userId, int tokenVersion) {
+        if (tokenId != null && deniedTokenIds.getIfPresent(tokenId) != null) {
+            return true;
+        }
+        return userId != null && tokenVersion != currentVersion(userId);
+    }
+
+    // expiresAt in epoch millis
+    private record Revocation(UUID userId, long expiresAt) {}
+
+    private static final class UntilTokenExpiry implements Expiry<String, Revocation> {
+
+        @Override
+        public long expireAfterCreate(String tokenId, Revocation revocation, long currentTime) {
+            return Duration.ofMillis(Math.max(0, revocation.expiresAt() - System.currentTimeMillis())).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenId, Revocation revocation, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenId, revocation, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenId, Revocation revocation, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.ExportFormat;
+import com.bclay.eaglebank_api.model.Money;
+import com.bclay.eaglebank_api.model.TransactionExportRow;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Service
+@Timed("eaglebank.service")
+public class TransactionExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_EVERY_ROWS = 1_000;
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectWriter rowWriter;
+
+    public TransactionExportService(TransactionRepository transactionRepository, ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.rowWriter = objectMapper.writerFor(TransactionExportRow.class);
+    }
+
+    /**
+     * Streams the account's full history, oldest first, straight from a database cursor to the output.
+     * Ownership must be checked by the caller before the response is committed.
+     */
+    @Transactional(readOnly = true)
+    public long export(UUID accountId, ExportFormat format, OutputStream out) throws IOException {
+        logger.info("Exporting transactions for account {} as {}", accountId, format);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == ExportFormat.CSV) {
+            writer.write("id,type,amount,timestamp\n");
+        }
+
+        long rows = 0;
+        try (Stream<TransactionExportRow> stream = transactionRepository.streamExportRows(accountId)) {
+            Iterator<TransactionExportRow> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                TransactionExportRow row = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(rowWriter.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+
+        logger.info("Exported {} transactions for account {}", rows, accountId);
+        return rows;
+    }
+
+    private static void writeCsv(Writer writer, TransactionExportRow row) throws IOException {
+        // every column is a UUID, enum, decimal or ISO timestamp, so no quoting is needed
+        writer.write(row.id().toString());
+        writer.write(',');
+        writer.write(row.type().name());
+        writer.write(',');
+        writer.write(Money.format(row.amount()));
+        writer.write(',');
+        writer.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(row.timestamp()));
+        writer.write('\n');
+    }
+}
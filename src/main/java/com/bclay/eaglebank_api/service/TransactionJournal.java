@@ -0,0 +1,332 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.JournalEntry;
+import com.bclay.eaglebank_api.model.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only file of accepted postings. A single writer takes every append waiting for it, writes them with one
+ * write and makes them durable with one fsync, so the cost of a flush is shared by all postings that arrived while
+ * the previous one ran (group commit).
+ * <p>
+ * Records are {@code [length][CRC32C][payload]}. A torn or corrupt record at the end of the last segment is a write
+ * that never completed and is cut off on recovery. Segments are named after their first sequence and deleted once
+ * every entry in them has been applied.
+ */
+public class TransactionJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionJournal.class);
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 128;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final int maxGroupSize;
+    private final BlockingQueue<PendingAppend> appends = new LinkedBlockingQueue<>();
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+
+    // owned by the writer thread once started
+    private FileChannel channel;
+    private long nextSequence = 1;
+
+    private Thread writer;
+    private volatile boolean closed;
+
+    public TransactionJournal(Path directory, long segmentSize, int maxGroupSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxGroupSize = maxGroupSize;
+    }
+
+    /**
+     * Reads every intact entry after the given sequence, cuts off a torn tail and opens the last segment for appends.
+     */
+    public List<JournalEntry> recover(long afterSequence) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(TransactionJournal::isSegment)
+                    .sorted(Comparator.comparingLong(TransactionJournal::firstSequence))
+                    .toList();
+        }
+
+        List<JournalEntry> entries = new ArrayList<>();
+        long lastSequence = afterSequence;
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            segments.put(firstSequence(file), file);
+            long size = Files.size(file);
+            long validBytes = 0;
+            try (FileChannel segment = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = segment.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                JournalEntry entry;
+                while ((entry = read(buffer)) != null) {
+                    validBytes = buffer.position();
+                    lastSequence = Math.max(lastSequence, entry.sequence());
+                    if (entry.sequence() > afterSequence) {
+                        entries.add(entry);
+                    }
+                }
+            }
+            if (validBytes < size) {
+                if (i < files.size() - 1) {
+                    throw new IOException("Journal segment " + file + " is corrupt at byte " + validBytes);
+                }
+                logger.warn("Cutting torn journal tail off {} at byte {} of {}", file, validBytes, size);
+                try (FileChannel segment = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    segment.truncate(validBytes);
+                    segment.force(true);
+                }
+            }
+        }
+
+        nextSequence = lastSequence + 1;
+        if (segments.isEmpty()) {
+            openSegment(nextSequence);
+        } else {
+            channel = FileChannel.open(segments.lastEntry().getValue(), StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+        release(afterSequence);
+        logger.info("Journal in {} recovered {} entries after sequence {}", directory, entries.size(), afterSequence);
+        return entries;
+    }
+
+    /**
+     * Starts the writer. Each durable group is handed to the listener in sequence order, on the writer thread.
+     */
+    public void start(Consumer<List<JournalEntry>> onDurable) {
+        writer = new Thread(() -> writeLoop(onDurable), "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Completes once the entry is on disk; fails if the journal is closed or a write failed.
+     */
+    public CompletableFuture<JournalEntry> append(UUID transactionId, UUID accountId, TransactionType type,
+                                                  long amount, LocalDateTime timestamp) {
+        PendingAppend append = new PendingAppend(transactionId, accountId, type, amount, timestamp,
+                new CompletableFuture<>());
+        // checked and queued under the same lock close() takes, so nothing can be queued behind the stop marker
+        synchronized (appends) {
+            if (closed) {
+                append.durable().completeExceptionally(new IllegalStateException("Journal is closed"));
+            } else {
+                appends.add(append);
+            }
+        }
+        return append.durable();
+    }
+
+    /**
+     * Deletes segments whose entries have all been applied. The segment being written is always kept.
+     */
+    public void release(long appliedSequence) {
+        Map.Entry<Long, Path> segment = segments.firstEntry();
+        while (segment != null) {
+            Long nextFirst = segments.higherKey(segment.getKey());
+            if (nextFirst == null || nextFirst > appliedSequence + 1) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(segment.getValue());
+                segments.remove(segment.getKey());
+                logger.debug("Deleted applied journal segment {}", segment.getValue());
+            } catch (IOException e) {
+                logger.warn("Could not delete applied journal segment {}", segment.getValue(), e);
+                return;
+            }
+            segment = segments.firstEntry();
+        }
+    }
+
+    private void writeLoop(Consumer<List<JournalEntry>> onDurable) {
+        ByteBuffer buffer = ByteBuffer.allocate(maxGroupSize * MAX_RECORD_BYTES);
+        List<PendingAppend> group = new ArrayList<>(maxGroupSize);
+        List<JournalEntry> entries = new ArrayList<>(maxGroupSize);
+        while (true) {
+            try {
+                group.add(appends.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            appends.drainTo(group, maxGroupSize - 1);
+            boolean stop = group.remove(PendingAppend.STOP);
+
+            if (!group.isEmpty()) {
+                try {
+                    if (channel.position() >= segmentSize) {
+                        channel.force(true);
+                        channel.close();
+                        openSegment(nextSequence);
+                    }
+                    buffer.clear();
+                    for (PendingAppend append : group) {
+                        JournalEntry entry = new JournalEntry(nextSequence++, append.transactionId(),
+                                append.accountId(), append.type(), append.amount(), append.timestamp());
+                        write(entry, buffer);
+                        entries.add(entry);
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                } catch (IOException e) {
+                    // after a failed write or fsync nothing about the file can be trusted; recovery decides on restart
+                    logger.error("Journal write failed, refusing further appends", e);
+                    synchronized (appends) {
+                        closed = true;
+                    }
+                    group.forEach(append -> append.durable().completeExceptionally(e));
+                    break;
+                }
+                for (int i = 0; i < group.size(); i++) {
+                    group.get(i).durable().complete(entries.get(i));
+                }
+                onDurable.accept(List.copyOf(entries));
+                group.clear();
+                entries.clear();
+            }
+            if (stop) {
+                break;
+            }
+        }
+
+        List<PendingAppend> abandoned = new ArrayList<>();
+        appends.drainTo(abandoned);
+        abandoned.forEach(append -> append.durable().completeExceptionally(new IllegalStateException("Journal is closed")));
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        segments.put(firstSequence, file);
+        // make the new file's directory entry durable too, or a crash could lose the whole segment
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            logger.debug("Directory fsync not supported for {}", directory, e);
+        }
+    }
+
+    private static void write(JournalEntry entry, ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.position(start + HEADER_BYTES);
+        buffer.putLong(entry.sequence());
+        putUuid(buffer, entry.transactionId());
+        putUuid(buffer, entry.accountId());
+        byte[] type = entry.type().name().getBytes(StandardCharsets.US_ASCII);
+        buffer.put((byte) type.length).put(type);
+        buffer.putLong(entry.amount());
+        buffer.putLong(entry.timestamp().toEpochSecond(ZoneOffset.UTC)).putInt(entry.timestamp().getNano());
+
+        int length = buffer.position() - start - HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), start + HEADER_BYTES, length);
+        buffer.putInt(start, length).putInt(start + 4, (int) crc.getValue());
+    }
+
+    // null at the end of the segment or at the first torn or corrupt record
+    private static JournalEntry read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        int checksum = buffer.getInt(start + 4);
+        if (length <= 0 || length > MAX_RECORD_BYTES - HEADER_BYTES || length > buffer.remaining() - HEADER_BYTES) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + HEADER_BYTES, length));
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+
+        buffer.position(start + HEADER_BYTES);
+        long sequence = buffer.getLong();
+        UUID transactionId = getUuid(buffer);
+        UUID accountId = getUuid(buffer);
+        byte[] type = new byte[buffer.get()];
+        buffer.get(type);
+        long amount = buffer.getLong();
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        buffer.position(start + HEADER_BYTES + length);
+        try {
+            return new JournalEntry(sequence, transactionId, accountId,
+                    TransactionType.valueOf(new String(type, StandardCharsets.US_ASCII)), amount, timestamp);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Journal entry " + sequence + " has an unknown transaction type", e);
+        }
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Writes out everything appended so far, then stops the writer and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (appends) {
+            closed = true;
+            appends.add(PendingAppend.STOP);
+        }
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private record PendingAppend(UUID transactionId, UUID accountId, TransactionType type, long amount,
+                                 LocalDateTime timestamp, CompletableFuture<JournalEntry> durable) {
+
+        static final PendingAppend STOP = new PendingAppend(null, null, null, 0, null, null);
+    }
+}
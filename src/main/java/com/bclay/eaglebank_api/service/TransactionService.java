@@ -1,104 +1,382 @@
 package com.bclay.eaglebank_api.service;
 
+import com.bclay.eaglebank_api.exception.BankAccountNotFoundException;
 import com.bclay.eaglebank_api.exception.TransactionNotFoundException;
-import com.bclay.eaglebank_api.exception.UserNotFoundException;
 import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.BatchPostingRequest;
+import com.bclay.eaglebank_api.model.BatchPostingResponse;
+import com.bclay.eaglebank_api.model.Money;
 import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionCursor;
+import com.bclay.eaglebank_api.model.TransactionExportRow;
+import com.bclay.eaglebank_api.model.TransactionPage;
+import com.bclay.eaglebank_api.model.TransactionResponse;
 import com.bclay.eaglebank_api.model.TransactionType;
-import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.model.TransferRequest;
+import com.bclay.eaglebank_api.model.TransferResponse;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
 import com.bclay.eaglebank_api.repository.TransactionRepository;
-import com.bclay.eaglebank_api.repository.UserRepository;
-import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+
 @Service
+@Timed("eaglebank.service")
 public class TransactionService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
 
     private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
+    private final BankAccountRepository bankAccountRepository;
     private final BankAccountService bankAccountService;
+    private final AuthorizationContext authorizationContext;
+    private final ApiMetrics apiMetrics;
+    private final AccountAggregateService accountAggregateService;
+    private final AccountCache accountCache;
+    private final JournaledPostingService journaledPosting;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchItems;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public TransactionService(TransactionRepository transactionRepository, UserRepository userRepository, BankAccountService bankAccountService) {
+    public TransactionService(TransactionRepository transactionRepository, BankAccountRepository bankAccountRepository,
+                              BankAccountService bankAccountService, AuthorizationContext authorizationContext,
+                              ApiMetrics apiMetrics, AccountAggregateService accountAggregateService,
+                              AccountCache accountCache, ObjectProvider<JournaledPostingService> journaledPosting,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${eaglebank.transactions.batch.max-items:1000}") int maxBatchItems,
+                              @Value("${eaglebank.transactions.page.default-limit:50}") int defaultPageSize,
+                              @Value("${eaglebank.transactions.page.max-limit:500}") int maxPageSize) {
         this.transactionRepository = transactionRepository;
-        this.userRepository = userRepository;
+        this.bankAccountRepository = bankAccountRepository;
         this.bankAccountService = bankAccountService;
+        this.authorizationContext = authorizationContext;
+        this.apiMetrics = apiMetrics;
+        this.accountAggregateService = accountAggregateService;
+        this.accountCache = accountCache;
+        this.journaledPosting = journaledPosting.getIfAvailable();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchItems = maxBatchItems;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     public Transaction createTransaction(UUID accountId, Transaction transaction) {
         logger.debug("Creating transaction for accountId={}", accountId);
 
-        BankAccount account = bankAccountService.getAccountById(accountId);
-
-        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> {
-                    logger.warn("Authenticated user '{}' not found", currentUsername);
-                    return new UserNotFoundException("Authenticated user not found");
-                });
-
-        if (!account.getUser().getId().equals(currentUser.getId())) {
-            logger.warn("User '{}' is not authorized to perform transaction on account {}", currentUsername, accountId);
-            throw new AccessDeniedException("You are not authorized to perform this transaction.");
-        }
-
         if (transaction.getType() == null) {
             logger.error("Transaction type is missing");
             throw new IllegalArgumentException("Transaction type is required");
         }
 
-        if (transaction.getType() == TransactionType.WITHDRAWAL &&
-                account.getBalance() < transaction.getAmount()) {
-            logger.warn("Insufficient balance for withdrawal: accountId={}, balance={}, requested={}",
-                    accountId, account.getBalance(), transaction.getAmount());
-            throw new IllegalArgumentException("Insufficient balance");
+        if (transaction.getType().isTransfer()) {
+            logger.warn("Rejecting {} posted directly to account {}", transaction.getType(), accountId);
+            throw new IllegalArgumentException("Transfers must be made through the transfer endpoint");
         }
 
-        double updatedBalance = transaction.getType() == TransactionType.DEPOSIT
-                ? account.getBalance() + transaction.getAmount()
-                : account.getBalance() - transaction.getAmount();
+        if (transaction.getAmount() <= 0) {
+            logger.warn("Rejecting non-positive transaction amount {} for account {}", Money.format(transaction.getAmount()), accountId);
+            throw new IllegalArgumentException("Transaction amount must be positive");
+        }
 
-        account.setBalance(updatedBalance);
+        if (journaledPosting != null && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            // acknowledged once journaled, no database transaction held open while the journal syncs
+            authorizationContext.requireAccountOwnership(accountId);
+            Transaction journaled = journaledPosting.post(accountId, transaction.getType(), transaction.getAmount());
+            logger.info("Transaction {} journaled for account {}", journaled.getId(), accountId);
+            return journaled;
+        }
+        return transactionTemplate.execute(status -> postNow(accountId, transaction));
+    }
+
+    private Transaction postNow(UUID accountId, Transaction transaction) {
+        UUID currentUserId = authorizationContext.currentUserId();
+        long delta = transaction.getType().signed(transaction.getAmount());
+
+        // a posting inside the caller's transaction, such as an idempotent request's, must commit or roll back with
+        // it, so it is written directly even with the journal enabled, counting the account's unapplied postings
+        long pending = journaledPosting != null
+                ? journaledPosting.lockForDirectPosting(List.of(accountId)).get(accountId)
+                : 0L;
+
+        // ownership, balance guard and update in one statement; the row lock it takes serialises concurrent postings
+        int updated = bankAccountRepository.applyBalanceDelta(accountId, currentUserId, delta, pending);
+        if (updated == 0) {
+            throw rejectPosting(accountId, transaction);
+        }
+        accountCache.evictAccount(accountId);
 
-        transaction.setTimestamp(LocalDateTime.now());
-        transaction.setBankAccount(account);
+        Transaction posting = new Transaction(null, transaction.getType(), transaction.getAmount(),
+                LocalDateTime.now(), bankAccountRepository.getReferenceById(accountId));
+        Transaction savedTransaction = transactionRepository.save(posting);
 
-        bankAccountService.updateAccount(accountId, account);
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        // the row is still locked by the update, so this is the balance the posting produced
+        long balanceAfter = bankAccountRepository.findBalanceById(accountId).orElseThrow();
+        accountAggregateService.record(accountId, balanceAfter - delta, List.of(TransactionExportRow.of(savedTransaction)));
 
         logger.info("Transaction {} created successfully for account {}", savedTransaction.getId(), accountId);
         return savedTransaction;
     }
 
-    public List<Transaction> getAllTransactions(UUID accountId) {
-        logger.debug("Fetching all transactions for accountId={}", accountId);
-        bankAccountService.getAccountById(accountId); // enforces ownership
-        return transactionRepository.findByBankAccountId(accountId);
+    private RuntimeException rejectPosting(UUID accountId, Transaction transaction) {
+        // only reached on the failure path: work out which guard of the update rejected the posting
+        BankAccount account = bankAccountService.getAccountById(accountId); // throws if missing or not owned
+
+        logger.warn("Insufficient balance for withdrawal: accountId={}, balance={}, requested={}",
+                accountId, Money.format(account.getBalance()), Money.format(transaction.getAmount()));
+        apiMetrics.insufficientBalance();
+        return new IllegalArgumentException("Insufficient balance");
+    }
+
+    @Transactional
+    public BatchPostingResponse postBatch(BatchPostingRequest request) {
+        List<BatchPostingRequest.Item> items = request.items();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transaction");
+        }
+        if (items.size() > maxBatchItems) {
+            throw new IllegalArgumentException("Batch must not contain more than " + maxBatchItems + " transactions");
+        }
+        BatchPostingRequest.Mode mode = request.mode() != null ? request.mode() : BatchPostingRequest.Mode.ATOMIC;
+        logger.debug("Posting batch of {} transactions in {} mode", items.size(), mode);
+
+        UUID currentUserId = authorizationContext.currentUserId();
+        Set<UUID> accountIds = new HashSet<>();
+        for (BatchPostingRequest.Item item : items) {
+            if (item != null && item.accountId() != null) {
+                accountIds.add(item.accountId());
+            }
+        }
+
+        // with the journal enabled, journaled postings not yet applied count against the balances too; the accounts
+        // stay locked against new ones until this batch commits
+        Map<UUID, Long> pending = journaledPosting != null && !accountIds.isEmpty()
+                ? journaledPosting.lockForDirectPosting(accountIds)
+                : Map.of();
+
+        // one ownership check and one row lock per account, however many items target it
+        Map<UUID, BankAccount> accounts = new HashMap<>();
+        if (!accountIds.isEmpty()) {
+            for (BankAccount account : bankAccountRepository.lockOwnedAccounts(accountIds, currentUserId)) {
+                accounts.put(account.getId(), account);
+            }
+        }
+
+        Map<UUID, Long> balances = new HashMap<>();
+        accounts.forEach((id, account) -> balances.put(id, account.getBalance()));
+        Map<UUID, Long> openingBalances = new HashMap<>(balances);
+
+        LocalDateTime now = LocalDateTime.now();
+        Transaction[] postings = new Transaction[items.size()];
+        String[] rejections = new String[items.size()];
+        boolean anyRejected = false;
+
+        for (int i = 0; i < items.size(); i++) {
+            BatchPostingRequest.Item item = items.get(i);
+            String rejection = validateBatchItem(item, accounts);
+            if (rejection == null) {
+                long delta = item.type().signed(item.amount());
+                long updatedBalance = balances.get(item.accountId()) + delta;
+                if (updatedBalance + pending.getOrDefault(item.accountId(), 0L) < 0) {
+                    rejection = "Insufficient balance";
+                    apiMetrics.insufficientBalance();
+                } else {
+                    balances.put(item.accountId(), updatedBalance);
+                    postings[i] = new Transaction(null, item.type(), item.amount(), now, accounts.get(item.accountId()));
+                }
+            }
+            if (rejection != null) {
+                logger.warn("Batch item {} rejected: {}", i, rejection);
+                rejections[i] = rejection;
+                anyRejected = true;
+                apiMetrics.batchItemRejected();
+            }
+        }
+
+        boolean apply = !anyRejected || mode == BatchPostingRequest.Mode.BEST_EFFORT;
+        if (apply) {
+            List<Transaction> accepted = new ArrayList<>();
+            for (Transaction posting : postings) {
+                if (posting != null) {
+                    accepted.add(posting);
+                }
+            }
+            // inserts go out as JDBC batches (hibernate.jdbc.batch_size); each touched account gets one net UPDATE
+            transactionRepository.saveAll(accepted);
+
+            Map<UUID, List<TransactionExportRow>> postedByAccount = new HashMap<>();
+            for (Transaction posting : accepted) {
+                postedByAccount.computeIfAbsent(posting.getBankAccount().getId(), id -> new ArrayList<>())
+                        .add(TransactionExportRow.of(posting));
+            }
+            postedByAccount.forEach((id, posted) -> accountAggregateService.record(id, openingBalances.get(id), posted));
+            accounts.forEach((id, account) -> account.setBalance(balances.get(id)));
+            postedByAccount.keySet().forEach(accountCache::evictAccount);
+            logger.info("Batch posted {} of {} transactions across {} accounts", accepted.size(), items.size(), accounts.size());
+        } else {
+            logger.info("Atomic batch of {} transactions rejected, nothing applied", items.size());
+        }
+
+        List<BatchPostingResponse.Result> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            UUID accountId = items.get(i) != null ? items.get(i).accountId() : null;
+            if (rejections[i] != null) {
+                results.add(new BatchPostingResponse.Result(i, accountId, BatchPostingResponse.Status.REJECTED, null, rejections[i]));
+            } else if (apply) {
+                results.add(new BatchPostingResponse.Result(i, accountId, BatchPostingResponse.Status.POSTED, postings[i].getId(), null));
+            } else {
+                results.add(new BatchPostingResponse.Result(i, accountId, BatchPostingResponse.Status.NOT_APPLIED, null,
+                        "Batch rejected"));
+            }
+        }
+        return new BatchPostingResponse(mode, apply, results);
+    }
+
+    /**
+     * Debits the source account and credits the destination in one database transaction. Only the source has to
+     * belong to the current user. Both rows are locked in {@link BankAccountRepository#LOCK_ORDER}, so transfers
+     * crossing the same pair of accounts in opposite directions queue up instead of deadlocking. With the journal
+     * enabled, the source's unapplied journaled postings count against its balance.
+     */
+    public TransferResponse transfer(UUID fromAccountId, TransferRequest request) {
+        logger.debug("Transferring from account {}", fromAccountId);
+
+        if (request.toAccountId() == null) {
+            throw new IllegalArgumentException("Destination account is required");
+        }
+        if (request.toAccountId().equals(fromAccountId)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+        if (request.amount() <= 0) {
+            logger.warn("Rejecting non-positive transfer amount {} from account {}", Money.format(request.amount()), fromAccountId);
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
+        return transactionTemplate.execute(status -> transferNow(fromAccountId, request.toAccountId(), request.amount()));
+    }
+
+    private TransferResponse transferNow(UUID fromAccountId, UUID toAccountId, long amount) {
+        // as for batches: count the source's unapplied journaled postings, and hold them off until this commits
+        long sourcePending = journaledPosting != null
+                ? journaledPosting.lockForDirectPosting(List.of(fromAccountId)).get(fromAccountId)
+                : 0L;
+
+        boolean sourceFirst = BankAccountRepository.LOCK_ORDER.compare(fromAccountId, toAccountId) < 0;
+        BankAccount first = lockForTransfer(sourceFirst ? fromAccountId : toAccountId);
+        BankAccount second = lockForTransfer(sourceFirst ? toAccountId : fromAccountId);
+        BankAccount source = sourceFirst ? first : second;
+        BankAccount destination = sourceFirst ? second : first;
+
+        if (source == null) {
+            logger.warn("Transfer source account not found: {}", fromAccountId);
+            throw new BankAccountNotFoundException("Bank account not found");
+        }
+        authorizationContext.requireOwner(source);
+        if (destination == null) {
+            logger.warn("Transfer destination account not found: {}", toAccountId);
+            throw new BankAccountNotFoundException("Destination account not found");
+        }
+
+        long sourceBalance = source.getBalance();
+        long destinationBalance = destination.getBalance();
+        if (sourceBalance + sourcePending < amount) {
+            logger.warn("Insufficient balance for transfer: accountId={}, available={}, requested={}",
+                    fromAccountId, Money.format(sourceBalance + sourcePending), Money.format(amount));
+            apiMetrics.insufficientBalance();
+            throw new IllegalArgumentException("Insufficient balance");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Transaction debit = new Transaction(null, TransactionType.TRANSFER_OUT, amount, now, source);
+        Transaction credit = new Transaction(null, TransactionType.TRANSFER_IN, amount, now, destination);
+        transactionRepository.saveAll(List.of(debit, credit));
+        source.setBalance(sourceBalance - amount);
+        destination.setBalance(destinationBalance + amount);
+
+        accountAggregateService.record(fromAccountId, sourceBalance, List.of(TransactionExportRow.of(debit)));
+        accountAggregateService.record(toAccountId, destinationBalance, List.of(TransactionExportRow.of(credit)));
+        accountCache.evictAccount(fromAccountId);
+        accountCache.evictAccount(toAccountId);
+
+        logger.info("Transferred {} from account {} to account {}", Money.format(amount), fromAccountId, toAccountId);
+        return new TransferResponse(TransactionResponse.of(debit), TransactionResponse.of(credit));
+    }
+
+    private BankAccount lockForTransfer(UUID accountId) {
+        return bankAccountRepository.lockById(accountId).orElse(null);
+    }
+
+    private String validateBatchItem(BatchPostingRequest.Item item, Map<UUID, BankAccount> ownedAccounts) {
+        if (item == null || item.accountId() == null) {
+            return "Account ID is required";
+        }
+        if (item.type() == null) {
+            return "Transaction type is required";
+        }
+        if (item.type().isTransfer()) {
+            return "Transfers must be made through the transfer endpoint";
+        }
+        if (item.amount() <= 0) {
+            return "Transaction amount must be positive";
+        }
+        if (!ownedAccounts.containsKey(item.accountId())) {
+            return "Bank account not found";
+        }
+        return null;
+    }
+
+    public TransactionPage getTransactions(UUID accountId, LocalDateTime from, LocalDateTime to,
+                                           TransactionType type, Integer limit, String cursor) {
+        logger.debug("Fetching transactions for accountId={} from={} to={} type={} limit={}", accountId, from, to, type, limit);
+        authorizationContext.requireAccountOwnership(accountId);
+
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        TransactionCursor after = cursor != null ? TransactionCursor.decode(cursor) : null;
+
+        // one extra row tells us whether another page exists without a count query
+        List<Transaction> rows = transactionRepository.findPage(accountId, from, to, type,
+                after != null ? after.timestamp() : null,
+                after != null ? after.id() : null,
+                PageRequest.of(0, pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new TransactionPage(toResponses(rows), null);
+        }
+        List<Transaction> page = rows.subList(0, pageSize);
+        return new TransactionPage(toResponses(page), TransactionCursor.of(page.get(pageSize - 1)).encode());
+    }
+
+    private static List<TransactionResponse> toResponses(List<Transaction> transactions) {
+        List<TransactionResponse> responses = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            responses.add(TransactionResponse.of(transaction));
+        }
+        return responses;
     }
 
     public Transaction getTransaction(UUID accountId, UUID transactionId) {
         logger.debug("Fetching transaction {} for account {}", transactionId, accountId);
 
-        BankAccount account = bankAccountService.getAccountById(accountId); // verifies ownership
+        authorizationContext.requireAccountOwnership(accountId);
 
-        return transactionRepository.findById(transactionId)
-                .filter(tx -> tx.getBankAccount().getId().equals(account.getId()))
+        return transactionRepository.findByIdAndBankAccountId(transactionId, accountId)
                 .orElseThrow(() -> {
                     logger.warn("Transaction {} not found or does not belong to account {}", transactionId, accountId);
                     return new TransactionNotFoundException("Transaction not found for this account");
                 });
     }
-
-    public List<Transaction> getTransactionsByAccount(UUID accountId) {
-        logger.debug("Fetching transactions (alt path) for accountId={}", accountId);
-        return transactionRepository.findByBankAccountId(accountId);
-    }
 }
 
@@ -2,29 +2,73 @@ package com.bclay.eaglebank_api.service;
 
 import com.bclay.eaglebank_api.model.User;
 import com.bclay.eaglebank_api.repository.UserRepository;
+import com.bclay.eaglebank_api.service.PrincipalCache.CachedPrincipal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
+    private static final GrantedAuthority ROLE_USER = new SimpleGrantedAuthority("ROLE_USER");
+    private static final GrantedAuthority ROLE_ADMIN = new SimpleGrantedAuthority("ROLE_ADMIN");
+    private static final GrantedAuthority ROLE_METRICS = new SimpleGrantedAuthority("ROLE_METRICS");
+
     private final UserRepository userRepo;
+    private final PrincipalCache principalCache;
+    private final Set<UUID> adminUserIds;
+    private final Set<UUID> metricsUserIds;
 
-    public UserDetailsServiceImpl(UserRepository userRepo) {
+    // roles are configured by user ID: usernames can be changed, and a freed one re-registered by someone else
+    public UserDetailsServiceImpl(UserRepository userRepo, PrincipalCache principalCache,
+                                  @Value("${eaglebank.security.admin-user-ids:}") Set<UUID> adminUserIds,
+                                  @Value("${eaglebank.security.metrics-user-ids:}") Set<UUID> metricsUserIds) {
         this.userRepo = userRepo;
+        this.principalCache = principalCache;
+        this.adminUserIds = Set.copyOf(adminUserIds);
+        this.metricsUserIds = Set.copyOf(metricsUserIds);
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         logger.debug("Attempting to load user by username: {}", username);
 
+        CachedPrincipal principal = principalCache.get(username, this::loadPrincipal);
+
+        return new AuthenticatedUser(
+                principal.userId(),
+                principal.username(),
+                principal.passwordHash(),
+                roles(principal.userId())
+        );
+    }
+
+    private List<GrantedAuthority> roles(UUID userId) {
+        List<GrantedAuthority> roles = new ArrayList<>(3);
+        roles.add(ROLE_USER);
+        if (adminUserIds.contains(userId)) {
+            roles.add(ROLE_ADMIN);
+        }
+        if (metricsUserIds.contains(userId)) {
+            roles.add(ROLE_METRICS);
+        }
+        return roles;
+    }
+
+    private CachedPrincipal loadPrincipal(String username) {
+        logger.debug("Principal cache miss for username: {}", username);
+
         User user = userRepo.findByUsername(username)
                 .orElseThrow(() -> {
                     logger.warn("User not found for username: {}", username);
@@ -32,11 +76,6 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 });
 
         logger.info("User authenticated: {}", username);
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                List.of(new SimpleGrantedAuthority("ROLE_USER"))
-        );
+        return new CachedPrincipal(user.getId(), user.getUsername(), user.getPassword());
     }
 }
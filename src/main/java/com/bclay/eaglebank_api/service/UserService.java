@@ -1,17 +1,21 @@
 package com.bclay.eaglebank_api.service;
 
+import com.bclay.eaglebank_api.exception.DuplicateUsernameException;
 import com.bclay.eaglebank_api.exception.UserNotFoundException;
 import com.bclay.eaglebank_api.model.User;
 import com.bclay.eaglebank_api.repository.BankAccountRepository;
 import com.bclay.eaglebank_api.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
 
 @Service
+@Timed("eaglebank.service")
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
@@ -19,17 +23,37 @@ public class UserService {
     private final UserRepository userRepository;
     private final BankAccountRepository bankAccountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
 
-    public UserService(UserRepository userRepository, BankAccountRepository bankAccountRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, BankAccountRepository bankAccountRepository,
+                       PasswordEncoder passwordEncoder, PrincipalCache principalCache,
+                       TokenRevocationService tokenRevocationService) {
         this.userRepository = userRepository;
         this.bankAccountRepository = bankAccountRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     public User createUser(User user) {
         logger.info("Creating user: {}", user.getUsername());
+        if (userRepository.existsByUsername(user.getUsername())) {
+            logger.warn("Cannot create user. Username '{}' is already taken", user.getUsername());
+            throw new DuplicateUsernameException("Username is already taken");
+        }
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent signup took the name after the check; other violations (e.g. email) pass through
+            if (userRepository.existsByUsername(user.getUsername())) {
+                logger.warn("Cannot create user. Username '{}' was taken concurrently", user.getUsername());
+                throw new DuplicateUsernameException("Username is already taken");
+            }
+            throw e;
+        }
         logger.info("User created with ID: {}", savedUser.getId());
         return savedUser;
     }
@@ -43,9 +67,41 @@ public class UserService {
                 });
     }
 
-    public User updateUser(User user) {
+    /**
+     * Applies the non-null username and email of {@code changes} to the user. Changing the username logs the user
+     * out everywhere, since outstanding tokens carry the old one; an email change leaves sessions alone.
+     */
+    public User updateUser(User user, User changes) {
         logger.info("Updating user with ID: {}", user.getId());
-        return userRepository.save(user);
+        String previousUsername = user.getUsername();
+        boolean renamed = changes.getUsername() != null && !changes.getUsername().equals(previousUsername);
+        if (renamed && userRepository.existsByUsername(changes.getUsername())) {
+            logger.warn("Cannot rename user {}. Username '{}' is already taken", user.getId(), changes.getUsername());
+            throw new DuplicateUsernameException("Username is already taken");
+        }
+        if (changes.getUsername() != null) {
+            user.setUsername(changes.getUsername());
+        }
+        if (changes.getEmail() != null) {
+            user.setEmail(changes.getEmail());
+        }
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            // as in createUser: a concurrent signup or rename took the name after the check
+            if (renamed && userRepository.existsByUsername(changes.getUsername())) {
+                logger.warn("Cannot rename user {}. Username '{}' was taken concurrently", user.getId(), changes.getUsername());
+                throw new DuplicateUsernameException("Username is already taken");
+            }
+            throw e;
+        }
+        principalCache.evictUser(savedUser.getId());
+        if (!savedUser.getUsername().equals(previousUsername)) {
+            principalCache.evict(previousUsername);
+            tokenRevocationService.revokeAllForUser(savedUser.getId());
+        }
+        return savedUser;
     }
 
     public void deleteUser(UUID userId) {
@@ -55,6 +111,8 @@ public class UserService {
             throw new UserNotFoundException("Cannot delete. User with ID " + userId + " does not exist.");
         }
         userRepository.deleteById(userId);
+        principalCache.evictUser(userId);
+        tokenRevocationService.revokeAllForUser(userId);
         logger.info("User with ID {} deleted successfully", userId);
     }
 
@@ -0,0 +1,10 @@
+-- One-off migration for H2 databases created before amounts moved to exact minor units.
+-- bank_account.balance and transaction.amount were DOUBLE major units (pounds); they become BIGINT pence.
+-- Run once against a stopped application, e.g.
+--   java -cp h2.jar org.h2.tools.RunScript -url jdbc:h2:file:./data/eaglebankdb -user sa -script money-minor-units.sql
+
+UPDATE bank_account SET balance = ROUND(balance * 100, 0);
+ALTER TABLE bank_account ALTER COLUMN balance SET DATA TYPE BIGINT;
+
+UPDATE transaction SET amount = ROUND(amount * 100, 0);
+ALTER TABLE transaction ALTER COLUMN amount SET DATA TYPE BIGINT;
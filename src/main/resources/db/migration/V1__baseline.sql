@@ -0,0 +1,77 @@
+-- Baseline schema, as Hibernate generated it under ddl-auto before migrations took over.
+-- Written in the subset of SQL shared by PostgreSQL and H2 in PostgreSQL mode.
+
+CREATE TABLE users (
+    id       UUID         NOT NULL,
+    email    VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+CREATE INDEX idx_users_username ON users (username);
+
+CREATE TABLE bank_account (
+    id             UUID         NOT NULL,
+    account_number VARCHAR(255) NOT NULL,
+    type           VARCHAR(255) NOT NULL,
+    balance        BIGINT       NOT NULL,
+    version        BIGINT,
+    user_id        UUID         NOT NULL,
+    CONSTRAINT pk_bank_account PRIMARY KEY (id),
+    CONSTRAINT uk_bank_account_account_number UNIQUE (account_number),
+    CONSTRAINT fk_bank_account_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+CREATE INDEX idx_bank_account_user_id ON bank_account (user_id);
+
+CREATE TABLE transaction (
+    id         UUID         NOT NULL,
+    type       VARCHAR(32)  NOT NULL,
+    amount     BIGINT       NOT NULL,
+    timestamp  TIMESTAMP(6) NOT NULL,
+    account_id UUID         NOT NULL,
+    CONSTRAINT pk_transaction PRIMARY KEY (id),
+    CONSTRAINT fk_transaction_account FOREIGN KEY (account_id) REFERENCES bank_account (id)
+);
+CREATE INDEX idx_transaction_account_timestamp ON transaction (account_id, timestamp, id);
+
+CREATE TABLE account_daily_aggregate (
+    account_id       UUID   NOT NULL,
+    posting_day      DATE   NOT NULL,
+    opening_balance  BIGINT NOT NULL,
+    closing_balance  BIGINT NOT NULL,
+    min_balance      BIGINT NOT NULL,
+    max_balance      BIGINT NOT NULL,
+    deposit_count    BIGINT NOT NULL,
+    deposit_total    BIGINT NOT NULL,
+    withdrawal_count BIGINT NOT NULL,
+    withdrawal_total BIGINT NOT NULL,
+    CONSTRAINT pk_account_daily_aggregate PRIMARY KEY (account_id, posting_day)
+);
+
+CREATE TABLE ledger_snapshot (
+    account_id          UUID         NOT NULL,
+    balance             BIGINT       NOT NULL,
+    entry_count         BIGINT       NOT NULL,
+    watermark_timestamp TIMESTAMP(6),
+    watermark_id        UUID,
+    digest              VARCHAR(44)  NOT NULL,
+    taken_at            TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_ledger_snapshot PRIMARY KEY (account_id)
+);
+
+CREATE TABLE journal_checkpoint (
+    name             VARCHAR(255) NOT NULL,
+    applied_sequence BIGINT       NOT NULL,
+    CONSTRAINT pk_journal_checkpoint PRIMARY KEY (name)
+);
+
+CREATE TABLE idempotency_record (
+    id          VARCHAR(300) NOT NULL,
+    fingerprint VARCHAR(44)  NOT NULL,
+    status      INTEGER      NOT NULL,
+    body        TEXT         NOT NULL,
+    expires_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_idempotency_record PRIMARY KEY (id)
+);
+CREATE INDEX idx_idempotency_record_expires_at ON idempotency_record (expires_at);
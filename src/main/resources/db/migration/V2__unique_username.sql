@@ -0,0 +1,4 @@
+-- Usernames identify principals, so they must be unique. The unique constraint's index also serves the
+-- per-request username lookups, which makes the plain index redundant.
+DROP INDEX idx_users_username;
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
@@ -0,0 +1,5 @@
+-- A request claims its Idempotency-Key by inserting the row before it runs, and records its response in the same
+-- transaction as its writes. Until then the row has no status or body, only the claim token and its lease.
+ALTER TABLE idempotency_record ALTER COLUMN status DROP NOT NULL;
+ALTER TABLE idempotency_record ALTER COLUMN body DROP NOT NULL;
+ALTER TABLE idempotency_record ADD COLUMN claim_token VARCHAR(36);
@@ -0,0 +1,28 @@
+package com.bclay.eaglebank_api;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Boots the rdbms profile against a real PostgreSQL in a container, which catches what the H2 stand-in accepts and
+ * PostgreSQL does not, such as untyped null parameters. Needs Docker:
+ *   mvn -Ppostgres test -Dtest=PostgresProfileTest
+ */
+@Testcontainers
+@ActiveProfiles("rdbms")
+class PostgresProfileTest extends AbstractRdbmsProfileTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+}
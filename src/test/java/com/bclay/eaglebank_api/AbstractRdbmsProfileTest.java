@@ -0,0 +1,139 @@
+package com.bclay.eaglebank_api;
+
+import com.bclay.eaglebank_api.model.AccountSummary;
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionPage;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.TransferRequest;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import com.bclay.eaglebank_api.service.AccountAggregateService;
+import com.bclay.eaglebank_api.service.BankAccountService;
+import com.bclay.eaglebank_api.service.IdempotencyService;
+import com.bclay.eaglebank_api.service.LedgerService;
+import com.bclay.eaglebank_api.service.TransactionService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks for the rdbms profile: the schema comes from the Flyway migrations alone, and the application writes to and
+ * queries every table. Subclasses choose the database.
+ */
+@SpringBootTest(properties = "eaglebank.ledger.snapshot.settle-lag=0s")
+@DirtiesContext
+abstract class AbstractRdbmsProfileTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountAggregateService accountAggregateService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void migrations_shouldCreateTheSchemaAndItsIndexes() throws SQLException {
+        assertEquals("3", flyway.info().current().getVersion().getVersion());
+        assertTrue(uniquelyIndexedColumns("users").contains("username"));
+        assertTrue(indexes("bank_account").contains("idx_bank_account_user_id"));
+        assertTrue(indexes("transaction").contains("idx_transaction_account_timestamp"));
+    }
+
+    @Test
+    void application_shouldReadAndWriteEveryTable() {
+        String suffix = UUID.randomUUID().toString();
+        String username = "rdbms-" + suffix;
+        User owner = userRepository.save(new User(null, username + "@example.com", username, "hash"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+
+        UUID from = bankAccountService.createAccount(new BankAccount(null, "a-" + suffix, "CURRENT", 10_000L, owner)).getId();
+        UUID to = bankAccountService.createAccount(new BankAccount(null, "b-" + suffix, "CURRENT", 0L, owner)).getId();
+
+        Transaction withdrawal = new Transaction();
+        withdrawal.setType(TransactionType.WITHDRAWAL);
+        withdrawal.setAmount(1_000);
+        ResponseEntity<Transaction> posted = idempotencyService.execute("key-" + suffix, "POST", withdrawal,
+                Transaction.class, () -> ResponseEntity.ok(transactionService.createTransaction(from, withdrawal)));
+        transactionService.transfer(from, new TransferRequest(to, 2_500));
+
+        assertEquals(6_500L, bankAccountService.getAccountById(from).getBalance());
+        assertEquals(2_500L, bankAccountService.getAccountById(to).getBalance());
+        assertEquals(1, transactionService.getTransactions(from, null, null, TransactionType.WITHDRAWAL, null, null)
+                .transactions().size());
+        TransactionPage first = transactionService.getTransactions(from, null, null, null, 1, null);
+        TransactionPage second = transactionService.getTransactions(from, LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1), null, 10, first.nextCursor());
+        assertEquals(3, first.transactions().size() + second.transactions().size());
+        assertEquals(posted.getBody().getId(), idempotencyService.execute("key-" + suffix, "POST", withdrawal,
+                Transaction.class, () -> fail("replayed request ran again")).getBody().getId());
+
+        AccountSummary summary = accountAggregateService.summarize(from, null, null, AccountSummary.Period.DAY);
+        assertEquals(6_500L, summary.buckets().get(0).closingBalance());
+        assertTrue(ledgerService.snapshot(from).isPresent());
+        assertTrue(ledgerService.verify(List.of(from, to), true).consistent());
+    }
+
+    private Set<String> indexes(String table) throws SQLException {
+        return indexInfo(table, false, "INDEX_NAME");
+    }
+
+    private Set<String> uniquelyIndexedColumns(String table) throws SQLException {
+        return indexInfo(table, true, "COLUMN_NAME");
+    }
+
+    private Set<String> indexInfo(String table, boolean unique, String column) throws SQLException {
+        Set<String> values = new HashSet<>();
+        try (Connection connection = dataSource.getConnection();
+             ResultSet rows = connection.getMetaData().getIndexInfo(null, null, table, unique, false)) {
+            while (rows.next()) {
+                String value = rows.getString(column);
+                if (value != null) {
+                    values.add(value.toLowerCase());
+                }
+            }
+        }
+        return values;
+    }
+}
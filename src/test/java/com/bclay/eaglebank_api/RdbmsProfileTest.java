@@ -0,0 +1,23 @@
+package com.bclay.eaglebank_api;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Boots the rdbms profile against its offline stand-in, a file-backed H2 in PostgreSQL mode. PostgresProfileTest
+ * (postgres Maven profile) runs the same checks against a real server.
+ */
+@ActiveProfiles({"rdbms", "rdbms-local"})
+class RdbmsProfileTest extends AbstractRdbmsProfileTest {
+
+    @DynamicPropertySource
+    static void databaseFile(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("eaglebank-db").toString();
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:file:" + directory + "/eaglebankdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+    }
+}
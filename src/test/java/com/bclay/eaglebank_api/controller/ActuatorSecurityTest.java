@@ -0,0 +1,63 @@
+package com.bclay.eaglebank_api.controller;
+
+import com.bclay.eaglebank_api.service.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// metrics exporters, and with them /actuator/prometheus, are off in tests unless observability is auto-configured
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void health_shouldBePublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void metrics_shouldBeHiddenFromAnonymousCallersAndCustomers() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/actuator/prometheus").with(as("ROLE_USER"))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(as("ROLE_USER"))).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void metrics_shouldBeReadableWithMetricsOrAdminRole() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(as("ROLE_USER", "ROLE_METRICS"))).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics").with(as("ROLE_USER", "ROLE_ADMIN"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void ledger_shouldRequireAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/ledger").with(as("ROLE_USER", "ROLE_METRICS"))).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void unknownEndpoint_shouldBeNotFound() throws Exception {
+        mockMvc.perform(get("/actuator/missing").with(as("ROLE_USER", "ROLE_ADMIN"))).andExpect(status().isNotFound());
+    }
+
+    private static RequestPostProcessor as(String... roles) {
+        AuthenticatedUser principal = new AuthenticatedUser(UUID.randomUUID(), "actuator-" + UUID.randomUUID(), "",
+                Arrays.stream(roles).map(SimpleGrantedAuthority::new).toList());
+        return authentication(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
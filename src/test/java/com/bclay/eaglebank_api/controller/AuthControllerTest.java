@@ -3,12 +3,14 @@ package com.bclay.eaglebank_api.controller;
 import com.bclay.eaglebank_api.model.AuthRequest;
 import com.bclay.eaglebank_api.model.AuthResponse;
 import com.bclay.eaglebank_api.service.JwtUtil;
+import com.bclay.eaglebank_api.service.LoginService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -16,7 +18,7 @@ import static org.mockito.Mockito.*;
 class AuthControllerTest {
 
     @Mock
-    private AuthenticationManager authManager;
+    private LoginService loginService;
 
     @Mock
     private JwtUtil jwtUtil;
@@ -30,23 +32,39 @@ class AuthControllerTest {
     }
 
     @Test
-    void login_ReturnsAuthResponseWithToken() {
+    void login_ReturnsAuthResponseWithToken() throws Exception {
         // Arrange
         String username = "testuser";
         String password = "testpass";
         AuthRequest request = new AuthRequest(username, password);
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        servletRequest.setRemoteAddr("203.0.113.7");
 
-        Authentication authMock = mock(Authentication.class);
-        when(authManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authMock);
-        when(jwtUtil.generateToken(username)).thenReturn("mocked-jwt-token");
+        when(loginService.login(request, "203.0.113.7"))
+                .thenReturn(CompletableFuture.completedFuture(new AuthResponse("mocked-jwt-token")));
 
         // Act
-        AuthResponse response = authController.login(request);
+        AuthResponse response = authController.login(request, servletRequest).get();
 
         // Assert
         assertNotNull(response);
         assertEquals("mocked-jwt-token", response.token());
-        verify(authManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtUtil).generateToken(username);
+        verify(loginService).login(request, "203.0.113.7");
+    }
+
+    @Test
+    void logout_RevokesPresentedToken() {
+        ResponseEntity<Void> response = authController.logout("Bearer some-jwt-token");
+
+        assertEquals(204, response.getStatusCodeValue());
+        verify(jwtUtil).revokeToken("some-jwt-token");
+    }
+
+    @Test
+    void logout_WithoutBearerToken_IsRejected() {
+        for (String authorization : new String[]{null, "", "Bear", "Basic dXNlcjpwYXNz"}) {
+            assertThrows(IllegalArgumentException.class, () -> authController.logout(authorization));
+        }
+        verifyNoInteractions(jwtUtil);
     }
 }
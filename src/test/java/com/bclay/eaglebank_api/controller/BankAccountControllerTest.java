@@ -1,8 +1,11 @@
 package com.bclay.eaglebank_api.controller;
 
+import com.bclay.eaglebank_api.model.AccountResponse;
 import com.bclay.eaglebank_api.model.BankAccount;
 import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.service.AccountAggregateService;
 import com.bclay.eaglebank_api.service.BankAccountService;
+import com.bclay.eaglebank_api.service.IdempotencyService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -18,6 +21,12 @@ class BankAccountControllerTest {
     @Mock
     private BankAccountService bankAccountService;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private AccountAggregateService accountAggregateService;
+
     @InjectMocks
     private BankAccountController bankAccountController;
 
@@ -30,7 +39,7 @@ class BankAccountControllerTest {
     void createAccount_shouldReturnCreatedAccount() {
         BankAccount request = new BankAccount();
         request.setAccountNumber("123456");
-        request.setBalance(1000.0);
+        request.setBalance(100_000L);
 
         BankAccount saved = new BankAccount();
         saved.setId(UUID.randomUUID());
@@ -39,28 +48,29 @@ class BankAccountControllerTest {
 
         when(bankAccountService.createAccount(request)).thenReturn(saved);
 
-        ResponseEntity<BankAccount> response = bankAccountController.createAccount(request);
+        ResponseEntity<AccountResponse> response = bankAccountController.createAccount(null, request);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(saved, response.getBody());
+        assertEquals(AccountResponse.of(saved), response.getBody());
         verify(bankAccountService).createAccount(request);
+        verifyNoInteractions(idempotencyService);
     }
 
     @Test
     void getAccountsForCurrentUser_shouldReturnListOfAccounts() {
 
         List<BankAccount> accounts = List.of(
-                new BankAccount(UUID.randomUUID(), TransactionType.DEPOSIT.toString(), "1111", 500.0, null),
-                new BankAccount(UUID.randomUUID(), TransactionType.DEPOSIT.toString(),"2222", 1200.0, null)
+                new BankAccount(UUID.randomUUID(), TransactionType.DEPOSIT.toString(), "1111", 50_000L, null),
+                new BankAccount(UUID.randomUUID(), TransactionType.DEPOSIT.toString(),"2222", 120_000L, null)
         );
 
         when(bankAccountService.getAccountsForCurrentUser()).thenReturn(accounts);
 
-        ResponseEntity<List<BankAccount>> response = bankAccountController.getAccountsForCurrentUser();
+        ResponseEntity<List<AccountResponse>> response = bankAccountController.getAccountsForCurrentUser();
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(2, response.getBody().size());
-        assertEquals(accounts, response.getBody());
+        assertEquals(accounts.stream().map(AccountResponse::of).toList(), response.getBody());
         verify(bankAccountService).getAccountsForCurrentUser();
     }
 
@@ -70,14 +80,14 @@ class BankAccountControllerTest {
         BankAccount account = new BankAccount();
         account.setId(accountId);
         account.setAccountNumber("9999");
-        account.setBalance(2500.0);
+        account.setBalance(250_000L);
 
         when(bankAccountService.getAccountById(accountId)).thenReturn(account);
 
-        ResponseEntity<BankAccount> response = bankAccountController.getAccount(accountId);
+        ResponseEntity<AccountResponse> response = bankAccountController.getAccount(accountId);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(account, response.getBody());
+        assertEquals(AccountResponse.of(account), response.getBody());
         verify(bankAccountService).getAccountById(accountId);
     }
 
@@ -86,19 +96,19 @@ class BankAccountControllerTest {
         UUID accountId = UUID.randomUUID();
         BankAccount updateRequest = new BankAccount();
         updateRequest.setAccountNumber("updated");
-        updateRequest.setBalance(9000.0);
+        updateRequest.setBalance(900_000L);
 
         BankAccount updated = new BankAccount();
         updated.setId(accountId);
         updated.setAccountNumber("updated");
-        updated.setBalance(9000.0);
+        updated.setBalance(900_000L);
 
         when(bankAccountService.updateAccount(accountId, updateRequest)).thenReturn(updated);
 
-        ResponseEntity<BankAccount> response = bankAccountController.updateAccount(accountId, updateRequest);
+        ResponseEntity<AccountResponse> response = bankAccountController.updateAccount(accountId, updateRequest);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(updated, response.getBody());
+        assertEquals(AccountResponse.of(updated), response.getBody());
         verify(bankAccountService).updateAccount(accountId, updateRequest);
     }
 
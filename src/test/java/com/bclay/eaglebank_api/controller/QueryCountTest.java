@@ -0,0 +1,133 @@
+package com.bclay.eaglebank_api.controller;
+
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import com.bclay.eaglebank_api.service.AuthenticatedUser;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements each read endpoint issues, so that an eager association or a per-row lookup that
+ * turns a list into N+1 queries fails the build. Counts are per thread; MockMvc runs the request on the test thread.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.bclay.eaglebank_api.controller.QueryCountTest$StatementCounter")
+@AutoConfigureMockMvc
+class QueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private String suffix;
+    private User owner;
+    private UsernamePasswordAuthenticationToken authentication;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString();
+        String username = "queries-" + suffix;
+        owner = userRepository.save(new User(null, username + "@example.com", username, "hash"));
+        AuthenticatedUser principal = new AuthenticatedUser(owner.getId(), username, "hash", List.of());
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    @Test
+    void listAccounts_shouldNotScaleWithAccountCount() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            account(i, 10);
+        }
+
+        assertEquals(2, queries(get("/v1/accounts")));
+        assertEquals(0, queries(get("/v1/accounts")));
+    }
+
+    @Test
+    void getAccount_shouldNotLoadOwnerOrHistory() throws Exception {
+        BankAccount account = account(0, 10);
+
+        assertEquals(1, queries(get("/v1/accounts/" + account.getId())));
+        assertEquals(0, queries(get("/v1/accounts/" + account.getId())));
+    }
+
+    @Test
+    void listTransactions_shouldNotScaleWithPageSize() throws Exception {
+        BankAccount single = account(0, 1);
+        BankAccount many = account(1, 25);
+
+        assertEquals(2, queries(get("/v1/accounts/" + single.getId() + "/transactions")));
+        assertEquals(2, queries(get("/v1/accounts/" + many.getId() + "/transactions")));
+    }
+
+    @Test
+    void getTransaction_shouldNotLoadAccount() throws Exception {
+        BankAccount account = account(0, 1);
+        UUID transactionId = transactionRepository.findByBankAccountId(account.getId()).get(0).getId();
+
+        assertEquals(2, queries(get("/v1/accounts/" + account.getId() + "/transactions/" + transactionId)));
+    }
+
+    private long queries(MockHttpServletRequestBuilder request) throws Exception {
+        StatementCounter.reset();
+        mockMvc.perform(request.with(authentication(authentication))).andExpect(status().isOk());
+        return StatementCounter.count();
+    }
+
+    private BankAccount account(int number, int postings) {
+        BankAccount account = bankAccountRepository.save(
+                new BankAccount(null, number + "-" + suffix, "CURRENT", 100L * postings, owner));
+        for (int i = 0; i < postings; i++) {
+            transactionRepository.save(new Transaction(null, TransactionType.DEPOSIT, 100,
+                    LocalDateTime.now().minusMinutes(i), account));
+        }
+        return account;
+    }
+
+    public static class StatementCounter implements StatementInspector {
+
+        private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+        static void reset() {
+            COUNT.get()[0] = 0;
+        }
+
+        static long count() {
+            return COUNT.get()[0];
+        }
+
+        @Override
+        public String inspect(String sql) {
+            COUNT.get()[0]++;
+            return sql;
+        }
+    }
+}
@@ -1,18 +1,36 @@
 package com.bclay.eaglebank_api.controller;
 
+import com.bclay.eaglebank_api.exception.GlobalExceptionHandler;
+import com.bclay.eaglebank_api.model.BatchPostingRequest;
+import com.bclay.eaglebank_api.model.BatchPostingResponse;
+import com.bclay.eaglebank_api.model.ExportFormat;
 import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionPage;
+import com.bclay.eaglebank_api.model.TransactionResponse;
 import com.bclay.eaglebank_api.model.TransactionType;
-import com.bclay.eaglebank_api.service.BankAccountService;
+import com.bclay.eaglebank_api.model.TransferRequest;
+import com.bclay.eaglebank_api.model.TransferResponse;
+import com.bclay.eaglebank_api.service.AuthorizationContext;
+import com.bclay.eaglebank_api.service.IdempotencyService;
+import com.bclay.eaglebank_api.service.TransactionExportService;
 import com.bclay.eaglebank_api.service.TransactionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class TransactionControllerTest {
 
@@ -20,7 +38,13 @@ class TransactionControllerTest {
     private TransactionService transactionService;
 
     @Mock
-    private BankAccountService bankAccountService;
+    private AuthorizationContext authorizationContext;
+
+    @Mock
+    private TransactionExportService transactionExportService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
 
     @InjectMocks
     private TransactionController transactionController;
@@ -35,42 +59,90 @@ class TransactionControllerTest {
         UUID accountId = UUID.randomUUID();
         Transaction transaction = new Transaction();
         transaction.setId(UUID.randomUUID());
-        transaction.setAmount(100.0);
+        transaction.setAmount(10_000);
         transaction.setType(TransactionType.DEPOSIT);
 
         when(transactionService.createTransaction(eq(accountId), any(Transaction.class)))
                 .thenReturn(transaction);
 
-        ResponseEntity<Transaction> response = transactionController.createTransaction(accountId, transaction);
+        ResponseEntity<TransactionResponse> response = transactionController.createTransaction(accountId, null, transaction);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(transaction.getId(), response.getBody().getId());
+        assertEquals(transaction.getId(), response.getBody().id());
         verify(transactionService).createTransaction(accountId, transaction);
     }
 
     @Test
-    void getAllTransactions_shouldReturnTransactionList() {
+    void createTransaction_withSubPennyAmount_shouldBeBadRequest() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(transactionController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvc.perform(post("/v1/accounts/{accountId}/transactions", UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\": \"DEPOSIT\", \"amount\": 1.005}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Amount 1.005 is not representable with 2 decimal places"));
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void transfer_shouldReturnBothPostings() {
+        UUID fromAccountId = UUID.randomUUID();
+        TransferRequest request = new TransferRequest(UUID.randomUUID(), 2_500);
+        TransferResponse transfer = new TransferResponse(
+                new TransactionResponse(UUID.randomUUID(), TransactionType.TRANSFER_OUT, 2_500, null),
+                new TransactionResponse(UUID.randomUUID(), TransactionType.TRANSFER_IN, 2_500, null));
+
+        when(transactionService.transfer(fromAccountId, request)).thenReturn(transfer);
+
+        ResponseEntity<TransferResponse> response = transactionController.transfer(fromAccountId, null, request);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(transfer, response.getBody());
+    }
+
+    @Test
+    void createTransaction_withIdempotencyKey_shouldGoThroughIdempotencyService() {
+        UUID accountId = UUID.randomUUID();
+        Transaction transaction = new Transaction();
+        ResponseEntity<TransactionResponse> replayed = ResponseEntity.ok(TransactionResponse.of(transaction));
+
+        when(idempotencyService.execute(eq("retry-1"), eq("POST /v1/accounts/" + accountId + "/transactions"),
+                eq(transaction), eq(TransactionResponse.class), any())).thenReturn(replayed);
+
+        ResponseEntity<TransactionResponse> response = transactionController.createTransaction(accountId, "retry-1", transaction);
+
+        assertSame(replayed, response);
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void getTransactions_shouldReturnPage() {
         UUID accountId = UUID.randomUUID();
         Transaction transaction = new Transaction();
         transaction.setId(UUID.randomUUID());
-        transaction.setAmount(100.0);
+        transaction.setAmount(10_000);
         transaction.setType(TransactionType.DEPOSIT);
 
         Transaction transaction2 = new Transaction();
         transaction2.setId(UUID.randomUUID());
-        transaction2.setAmount(100.0);
+        transaction2.setAmount(10_000);
         transaction2.setType(TransactionType.DEPOSIT);
 
-        List<Transaction> transactions = List.of(transaction, transaction2);
+        TransactionPage page = new TransactionPage(
+                List.of(TransactionResponse.of(transaction), TransactionResponse.of(transaction2)), "next");
 
-        when(transactionService.getAllTransactions(accountId)).thenReturn(transactions);
+        when(transactionService.getTransactions(accountId, null, null, TransactionType.DEPOSIT, 2, null)).thenReturn(page);
 
-        ResponseEntity<List<Transaction>> response = transactionController.getAllTransactions(accountId);
+        ResponseEntity<TransactionPage> response =
+                transactionController.getTransactions(accountId, null, null, TransactionType.DEPOSIT, 2, null);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(2, response.getBody().size());
-        verify(bankAccountService).getAccountById(accountId);  // Ensure account ownership is validated
-        verify(transactionService).getAllTransactions(accountId);
+        assertEquals(2, response.getBody().transactions().size());
+        assertEquals("next", response.getBody().nextCursor());
+        verifyNoInteractions(authorizationContext);  // ownership is checked once, inside the service
+        verify(transactionService).getTransactions(accountId, null, null, TransactionType.DEPOSIT, 2, null);
     }
 
     @Test
@@ -78,16 +150,72 @@ class TransactionControllerTest {
         UUID accountId = UUID.randomUUID();
         UUID transactionId = UUID.randomUUID();
         Transaction transaction = new Transaction();
-        transaction.setId(UUID.randomUUID());
-        transaction.setAmount(200.0);
+        transaction.setId(transactionId);
+        transaction.setAmount(20_000);
         transaction.setType(TransactionType.DEPOSIT);
 
         when(transactionService.getTransaction(accountId, transactionId)).thenReturn(transaction);
 
-        ResponseEntity<Transaction> response = transactionController.getTransaction(accountId, transactionId);
+        ResponseEntity<TransactionResponse> response = transactionController.getTransaction(accountId, transactionId);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(transactionId, response.getBody().getId());
+        assertEquals(transactionId, response.getBody().id());
+        assertEquals(20_000, response.getBody().amount());
         verify(transactionService).getTransaction(accountId, transactionId);
     }
+
+    @Test
+    void postBatch_shouldReturnOkWhenApplied() {
+        UUID accountId = UUID.randomUUID();
+        BatchPostingRequest request = new BatchPostingRequest(BatchPostingRequest.Mode.ATOMIC,
+                List.of(new BatchPostingRequest.Item(accountId, TransactionType.DEPOSIT, 10_000)));
+        BatchPostingResponse result = new BatchPostingResponse(BatchPostingRequest.Mode.ATOMIC, true,
+                List.of(new BatchPostingResponse.Result(0, accountId, BatchPostingResponse.Status.POSTED, UUID.randomUUID(), null)));
+
+        when(transactionService.postBatch(request)).thenReturn(result);
+
+        ResponseEntity<BatchPostingResponse> response = transactionController.postBatch(request);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void postBatch_shouldReturnUnprocessableEntityWhenAtomicBatchRejected() {
+        UUID accountId = UUID.randomUUID();
+        BatchPostingRequest request = new BatchPostingRequest(BatchPostingRequest.Mode.ATOMIC,
+                List.of(new BatchPostingRequest.Item(accountId, TransactionType.WITHDRAWAL, 10_000)));
+        BatchPostingResponse result = new BatchPostingResponse(BatchPostingRequest.Mode.ATOMIC, false,
+                List.of(new BatchPostingResponse.Result(0, accountId, BatchPostingResponse.Status.REJECTED, null, "Insufficient balance")));
+
+        when(transactionService.postBatch(request)).thenReturn(result);
+
+        ResponseEntity<BatchPostingResponse> response = transactionController.postBatch(request);
+
+        assertEquals(422, response.getStatusCodeValue());
+        assertEquals(BatchPostingResponse.Status.REJECTED, response.getBody().results().get(0).status());
+    }
+
+    @Test
+    void exportTransactions_shouldCheckOwnershipThenStream() throws Exception {
+        UUID accountId = UUID.randomUUID();
+
+        ResponseEntity<StreamingResponseBody> response = transactionController.exportTransactions(accountId, "csv");
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("text/csv", response.getHeaders().getContentType().toString());
+        verify(authorizationContext).requireAccountOwnership(accountId);
+        verify(transactionExportService, never()).export(any(), any(), any());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        verify(transactionExportService).export(accountId, ExportFormat.CSV, out);
+    }
+
+    @Test
+    void exportTransactions_shouldRejectUnknownFormat() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionController.exportTransactions(UUID.randomUUID(), "xml"));
+        verify(transactionExportService, never()).export(any(), any(), any());
+    }
 }
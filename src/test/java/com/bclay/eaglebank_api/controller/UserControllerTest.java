@@ -1,6 +1,7 @@
 package com.bclay.eaglebank_api.controller;
 
 import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.model.UserResponse;
 import com.bclay.eaglebank_api.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,7 +44,7 @@ class UserControllerTest {
         ResponseEntity<?> response = userController.createUser(user);
 
         assertEquals(201, response.getStatusCodeValue());
-        assertEquals(createdUser, response.getBody());
+        assertEquals(UserResponse.of(createdUser), response.getBody());
         verify(userService).createUser(user);
     }
 
@@ -72,7 +73,7 @@ class UserControllerTest {
         ResponseEntity<?> response = userController.getUser(userId, principal);
 
         assertEquals(200, ((ResponseEntity<?>) response).getStatusCodeValue());
-        assertEquals(user, response.getBody());
+        assertEquals(UserResponse.of(user), response.getBody());
     }
 
     @Test
@@ -107,13 +108,17 @@ class UserControllerTest {
         Authentication auth = mock(Authentication.class);
         when(auth.getName()).thenReturn("testuser");
         when(userService.getUserById(userId)).thenReturn(existingUser);
-        when(userService.updateUser(any(User.class))).thenAnswer(i -> i.getArgument(0));
+        when(userService.updateUser(any(User.class), any(User.class))).thenAnswer(i -> {
+            User user = i.getArgument(0);
+            user.setEmail(i.<User>getArgument(1).getEmail());
+            return user;
+        });
 
-        ResponseEntity<User> response = userController.updateUser(userId, updatedUser, auth);
+        ResponseEntity<UserResponse> response = userController.updateUser(userId, updatedUser, auth);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals("new@example.com", response.getBody().getEmail());
-        verify(userService).updateUser(existingUser);
+        assertEquals("new@example.com", response.getBody().email());
+        verify(userService).updateUser(existingUser, updatedUser);
     }
 
     @Test
@@ -130,10 +135,10 @@ class UserControllerTest {
         when(auth.getName()).thenReturn("testuser");
         when(userService.getUserById(userId)).thenReturn(existingUser);
 
-        ResponseEntity<User> response = userController.updateUser(userId, updatedUser, auth);
+        ResponseEntity<UserResponse> response = userController.updateUser(userId, updatedUser, auth);
 
         assertEquals(403, response.getStatusCodeValue());
-        verify(userService, never()).updateUser(any());
+        verify(userService, never()).updateUser(any(), any());
     }
 
     @Test
@@ -0,0 +1,52 @@
+package com.bclay.eaglebank_api.model;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void toMinorUnits_shouldConvertExactly() {
+        assertEquals(10_050L, Money.toMinorUnits(new BigDecimal("100.50")));
+        assertEquals(10L, Money.toMinorUnits(new BigDecimal("0.1")));
+        assertEquals(-1L, Money.toMinorUnits(new BigDecimal("-0.01")));
+    }
+
+    @Test
+    void toMinorUnits_shouldRejectSubPennyAmounts() {
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinorUnits(new BigDecimal("1.005")));
+    }
+
+    @Test
+    void sumOfManySmallPostings_shouldNotDrift() {
+        long balance = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            balance += Money.toMinorUnits(new BigDecimal("0.10"));
+        }
+        assertEquals("100000.00", Money.format(balance));
+    }
+
+    @Test
+    void json_shouldRoundTripDecimalAmounts() throws Exception {
+        Transaction transaction = objectMapper.readValue("{\"type\":\"DEPOSIT\",\"amount\":100.25}", Transaction.class);
+
+        assertEquals(10_025L, transaction.getAmount());
+        assertTrue(objectMapper.writeValueAsString(transaction).contains("\"amount\":100.25"));
+    }
+
+    @Test
+    void json_shouldAcceptStringAmountsAndRejectSubPennyAmounts() throws Exception {
+        BankAccount account = objectMapper.readValue("{\"balance\":\"12.30\"}", BankAccount.class);
+        assertEquals(1_230L, account.getBalance());
+
+        assertThrows(JsonMappingException.class,
+                () -> objectMapper.readValue("{\"balance\":12.345}", BankAccount.class));
+    }
+}
@@ -0,0 +1,57 @@
+package com.bclay.eaglebank_api.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void next_shouldBeVersion7WithCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = TimeOrderedIdGenerator.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        // a burst of earlier IDs can push the timestamp slightly ahead of the clock, never behind it
+        assertTrue(millis >= before && millis <= System.currentTimeMillis() + 1_000);
+    }
+
+    @Test
+    void next_shouldIncreaseStrictlyEvenWithinOneMillisecond() {
+        UUID previous = TimeOrderedIdGenerator.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID id = TimeOrderedIdGenerator.next();
+            assertTrue(Long.compareUnsigned(id.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+                    previous + " was followed by " + id);
+            previous = id;
+        }
+    }
+
+    @Test
+    void next_shouldBeUniqueAcrossThreads() throws Exception {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(TimeOrderedIdGenerator.next());
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(8 * 50_000, ids.size());
+    }
+}
@@ -0,0 +1,141 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.AccountSummary;
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.BatchPostingRequest;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AccountAggregateServiceTest {
+
+    @Autowired
+    private AccountAggregateService accountAggregateService;
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String suffix;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString();
+        String username = "summary-" + suffix;
+        owner = userRepository.save(new User(null, username + "@example.com", username, "hash"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void postings_shouldBeAggregatedAsTheyAreMade() {
+        UUID accountId = bankAccountService.createAccount(new BankAccount(null, suffix, "CURRENT", 10_000L, owner)).getId();
+        post(accountId, TransactionType.DEPOSIT, 2_500);
+        post(accountId, TransactionType.WITHDRAWAL, 4_000);
+        transactionService.postBatch(new BatchPostingRequest(BatchPostingRequest.Mode.ATOMIC, List.of(
+                new BatchPostingRequest.Item(accountId, TransactionType.DEPOSIT, 1_000),
+                new BatchPostingRequest.Item(accountId, TransactionType.WITHDRAWAL, 500))));
+
+        AccountSummary summary = accountAggregateService.summarize(accountId, null, null, AccountSummary.Period.DAY);
+
+        assertEquals(1, summary.buckets().size());
+        AccountSummary.Bucket today = summary.buckets().get(0);
+        assertEquals(LocalDate.now(), today.start());
+        assertEquals(3, today.depositCount());
+        assertEquals(13_500, today.depositTotal());
+        assertEquals(2, today.withdrawalCount());
+        assertEquals(4_500, today.withdrawalTotal());
+        assertEquals(0, today.openingBalance());
+        assertEquals(9_000, today.closingBalance());
+        assertEquals(0, today.minBalance());
+        assertEquals(12_500, today.maxBalance());
+        assertEquals(bankAccountRepository.findBalanceById(accountId).orElseThrow(), today.closingBalance());
+    }
+
+    @Test
+    void backfill_shouldRebuildAggregatesFromHistory() {
+        UUID accountId = bankAccountRepository.save(new BankAccount(null, suffix, "CURRENT", 1_200L, owner)).getId();
+        insert(accountId, TransactionType.DEPOSIT, 1_000, LocalDateTime.of(2024, 1, 30, 9, 0));
+        insert(accountId, TransactionType.WITHDRAWAL, 300, LocalDateTime.of(2024, 1, 31, 17, 30));
+        insert(accountId, TransactionType.DEPOSIT, 500, LocalDateTime.of(2024, 2, 1, 8, 15));
+
+        accountAggregateService.backfill(List.of(accountId));
+
+        AccountSummary monthly = accountAggregateService.summarize(accountId, LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 2, 29), AccountSummary.Period.MONTH);
+        assertEquals(2, monthly.buckets().size());
+        AccountSummary.Bucket january = monthly.buckets().get(0);
+        assertEquals(LocalDate.of(2024, 1, 1), january.start());
+        assertEquals(1_000, january.depositTotal());
+        assertEquals(300, january.withdrawalTotal());
+        assertEquals(0, january.openingBalance());
+        assertEquals(700, january.closingBalance());
+        assertEquals(1_000, january.maxBalance());
+        AccountSummary.Bucket february = monthly.buckets().get(1);
+        assertEquals(700, february.openingBalance());
+        assertEquals(1_200, february.closingBalance());
+
+        // Monday 29 January to Sunday 4 February
+        AccountSummary weekly = accountAggregateService.summarize(accountId, LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 2, 29), AccountSummary.Period.WEEK);
+        assertEquals(1, weekly.buckets().size());
+        assertEquals(LocalDate.of(2024, 1, 29), weekly.buckets().get(0).start());
+        assertEquals(3, weekly.buckets().get(0).depositCount() + weekly.buckets().get(0).withdrawalCount());
+    }
+
+    @Test
+    void summarize_shouldRejectInvertedRange() {
+        UUID accountId = bankAccountRepository.save(new BankAccount(null, suffix, "CURRENT", 0L, owner)).getId();
+
+        assertThrows(IllegalArgumentException.class, () -> accountAggregateService.summarize(accountId,
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), AccountSummary.Period.DAY));
+    }
+
+    private void post(UUID accountId, TransactionType type, long amount) {
+        Transaction request = new Transaction();
+        request.setType(type);
+        request.setAmount(amount);
+        transactionService.createTransaction(accountId, request);
+    }
+
+    private void insert(UUID accountId, TransactionType type, long amount, LocalDateTime timestamp) {
+        jdbcTemplate.update("insert into transaction (id, type, amount, timestamp, account_id) values (?, ?, ?, ?, ?)",
+                UUID.randomUUID(), type.name(), amount, Timestamp.valueOf(timestamp), accountId);
+    }
+}
@@ -0,0 +1,120 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.BatchPostingRequest;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AccountCacheTest {
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String suffix;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString();
+        String username = "cache-" + suffix;
+        owner = userRepository.save(new User(null, username + "@example.com", username, "hash"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getAccountById_shouldServeRepeatReadsFromCache() {
+        UUID accountId = create("a", 5_000L).getId();
+        bankAccountService.getAccountById(accountId);
+        long hits = accountCache.accountStats().hitCount();
+
+        BankAccount account = bankAccountService.getAccountById(accountId);
+
+        assertEquals(hits + 1, accountCache.accountStats().hitCount());
+        assertEquals(5_000L, account.getBalance());
+        assertEquals(owner.getId(), account.getUser().getId());
+    }
+
+    @Test
+    void getAccountById_shouldReflectPostingsImmediately() {
+        UUID accountId = create("a", 5_000L).getId();
+        assertEquals(5_000L, bankAccountService.getAccountById(accountId).getBalance());
+
+        post(accountId, TransactionType.WITHDRAWAL, 1_500);
+        assertEquals(3_500L, bankAccountService.getAccountById(accountId).getBalance());
+
+        transactionService.postBatch(new BatchPostingRequest(BatchPostingRequest.Mode.ATOMIC, List.of(
+                new BatchPostingRequest.Item(accountId, TransactionType.DEPOSIT, 700))));
+        assertEquals(4_200L, bankAccountService.getAccountById(accountId).getBalance());
+    }
+
+    @Test
+    void getAccountById_shouldNotKeepBalanceOfRejectedPosting() {
+        UUID accountId = create("a", 1_000L).getId();
+        bankAccountService.getAccountById(accountId);
+
+        assertThrows(IllegalArgumentException.class, () -> post(accountId, TransactionType.WITHDRAWAL, 5_000));
+
+        assertEquals(1_000L, bankAccountService.getAccountById(accountId).getBalance());
+    }
+
+    @Test
+    void getAccountsForCurrentUser_shouldFollowCreateUpdateAndDelete() {
+        BankAccount first = create("a", 0L);
+        assertEquals(1, bankAccountService.getAccountsForCurrentUser().size());
+
+        BankAccount second = create("b", 0L);
+        assertEquals(2, bankAccountService.getAccountsForCurrentUser().size());
+
+        BankAccount rename = new BankAccount();
+        rename.setAccountNumber("renamed-" + suffix);
+        bankAccountService.updateAccount(first.getId(), rename);
+        assertTrue(bankAccountService.getAccountsForCurrentUser().stream()
+                .anyMatch(account -> account.getAccountNumber().equals("renamed-" + suffix)));
+
+        bankAccountService.deleteAccount(second.getId());
+        List<BankAccount> remaining = bankAccountService.getAccountsForCurrentUser();
+        assertEquals(1, remaining.size());
+        assertEquals(first.getId(), remaining.get(0).getId());
+    }
+
+    private BankAccount create(String number, long openingBalance) {
+        return bankAccountService.createAccount(new BankAccount(null, number + "-" + suffix, "CURRENT", openingBalance, owner));
+    }
+
+    private void post(UUID accountId, TransactionType type, long amount) {
+        Transaction request = new Transaction();
+        request.setType(type);
+        request.setAmount(amount);
+        transactionService.createTransaction(accountId, request);
+    }
+}
@@ -0,0 +1,120 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.exception.BankAccountNotFoundException;
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthorizationContextTest {
+
+    @Mock
+    private BankAccountRepository bankAccountRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApiMetrics apiMetrics;
+
+    @InjectMocks
+    private AuthorizationContext authorizationContext;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "alice", "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void currentUserId_shouldComeFromPrincipalWithoutLookup() {
+        assertEquals(userId, authorizationContext.currentUserId());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void currentUserId_shouldFallBackToUsernameLookupOncePerRequest() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("bob", null, List.of()));
+        User bob = new User();
+        bob.setId(UUID.randomUUID());
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(bob));
+
+        assertEquals(bob.getId(), authorizationContext.currentUserId());
+        assertEquals(bob.getId(), authorizationContext.currentUserId());
+        verify(userRepository, times(1)).findByUsername("bob");
+    }
+
+    @Test
+    void requireAccountOwnership_shouldQueryOncePerRequest() {
+        UUID accountId = UUID.randomUUID();
+        when(bankAccountRepository.existsByIdAndUserId(accountId, userId)).thenReturn(true);
+
+        authorizationContext.requireAccountOwnership(accountId);
+        authorizationContext.requireAccountOwnership(accountId);
+
+        verify(bankAccountRepository, times(1)).existsByIdAndUserId(accountId, userId);
+    }
+
+    @Test
+    void requireAccountOwnership_shouldReuseCheckFromLoadedAccount() {
+        User owner = new User();
+        owner.setId(userId);
+        BankAccount account = new BankAccount(UUID.randomUUID(), "12345678", "CURRENT", 0L, owner);
+
+        authorizationContext.requireOwner(account);
+        authorizationContext.requireAccountOwnership(account.getId());
+
+        verifyNoInteractions(bankAccountRepository);
+    }
+
+    @Test
+    void requireAccountOwnership_shouldDenyAccountOfAnotherUser() {
+        UUID accountId = UUID.randomUUID();
+        when(bankAccountRepository.existsByIdAndUserId(accountId, userId)).thenReturn(false);
+        when(bankAccountRepository.existsById(accountId)).thenReturn(true);
+
+        assertThrows(AccessDeniedException.class, () -> authorizationContext.requireAccountOwnership(accountId));
+        verify(apiMetrics).ownershipDenied();
+    }
+
+    @Test
+    void requireAccountOwnership_shouldReportMissingAccount() {
+        UUID accountId = UUID.randomUUID();
+        when(bankAccountRepository.existsByIdAndUserId(accountId, userId)).thenReturn(false);
+        when(bankAccountRepository.existsById(accountId)).thenReturn(false);
+
+        assertThrows(BankAccountNotFoundException.class, () -> authorizationContext.requireAccountOwnership(accountId));
+        verify(apiMetrics, never()).ownershipDenied();
+    }
+}
@@ -0,0 +1,251 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.exception.IdempotencyConflictException;
+import com.bclay.eaglebank_api.model.IdempotencyRecordState;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.IdempotencyRecordRepository;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs against the database, since the key's row is what coordinates requests: separate service instances stand in
+ * for separate application instances.
+ */
+@SpringBootTest
+class IdempotencyServiceTest {
+
+    private static final String OPERATION = "POST /v1/accounts/1/transactions";
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuthorizationContext authorizationContext;
+
+    private UUID userId;
+    private IdempotencyService idempotencyService;
+    private final AtomicInteger executions = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userId = UUID.randomUUID();
+        when(authorizationContext.currentUserId()).thenReturn(userId);
+        idempotencyService = newInstance();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_shouldReplayResponseWithoutRunningAgain() {
+        Transaction request = request(10_000);
+
+        ResponseEntity<Transaction> first = idempotencyService.execute("key-1", OPERATION, request, Transaction.class,
+                () -> post(request));
+        ResponseEntity<Transaction> retry = idempotencyService.execute("key-1", OPERATION, request, Transaction.class,
+                () -> post(request));
+
+        assertEquals(1, executions.get());
+        assertEquals(first.getBody().getId(), retry.getBody().getId());
+        assertEquals(10_000, retry.getBody().getAmount());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertTrue(state("key-1").completed());
+    }
+
+    @Test
+    void execute_shouldReplayRecordedResponseAfterCacheMiss() {
+        Transaction request = request(10_000);
+        Transaction original = new Transaction(UUID.randomUUID(), TransactionType.DEPOSIT, 10_000, LocalDateTime.now(), null);
+        idempotencyService.execute("key-1", OPERATION, request, Transaction.class, () -> ResponseEntity.ok(original));
+
+        // a fresh instance has an empty cache, as after a restart
+        ResponseEntity<Transaction> retry = newInstance().execute("key-1", OPERATION, request, Transaction.class,
+                () -> post(request));
+
+        assertEquals(0, executions.get());
+        assertEquals(original.getId(), retry.getBody().getId());
+    }
+
+    @Test
+    void execute_shouldRejectKeyReusedForDifferentRequest() {
+        idempotencyService.execute("key-1", OPERATION, request(10_000), Transaction.class, () -> post(request(10_000)));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+                idempotencyService.execute("key-1", OPERATION, request(20_000), Transaction.class,
+                        () -> post(request(20_000))));
+
+        assertEquals("Idempotency-Key was already used for a different request", e.getMessage());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_shouldNotRecordFailures() {
+        Transaction request = request(10_000);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                idempotencyService.execute("key-1", OPERATION, request, Transaction.class, () -> {
+                    executions.incrementAndGet();
+                    throw new IllegalArgumentException("Insufficient balance");
+                }));
+        assertTrue(repository.findState(id("key-1")).isEmpty());
+        idempotencyService.execute("key-1", OPERATION, request, Transaction.class, () -> post(request));
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_shouldCoalesceConcurrentDuplicates() throws Exception {
+        assertCoalesced(idempotencyService);
+    }
+
+    @Test
+    void execute_shouldWaitForDuplicateRunningOnAnotherInstance() throws Exception {
+        assertCoalesced(newInstance());
+    }
+
+    @Test
+    void execute_shouldRejectDifferentRequestWhileKeyIsClaimed() {
+        claimedElsewhere("key-1", LocalDateTime.now().plusHours(1));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                idempotencyService.execute("key-1", OPERATION, request(10_000), Transaction.class,
+                        () -> post(request(10_000))));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_shouldTakeOverExpiredClaim() {
+        // an instance that crashed while running the request leaves its claim behind
+        claimedElsewhere("key-1", LocalDateTime.now().minusSeconds(1));
+        Transaction request = request(10_000);
+
+        ResponseEntity<Transaction> response = idempotencyService.execute("key-1", OPERATION, request,
+                Transaction.class, () -> post(request));
+
+        assertEquals(1, executions.get());
+        assertTrue(state("key-1").completed());
+        assertEquals(response.getBody().getId(), newInstance().execute("key-1", OPERATION, request,
+                Transaction.class, () -> post(request)).getBody().getId());
+    }
+
+    @Test
+    void execute_whenClaimIsTakenOver_shouldRollBackTheRequest() {
+        String username = "idempotency-" + UUID.randomUUID();
+        Transaction request = request(10_000);
+
+        assertThrows(IdempotencyConflictException.class, () ->
+                idempotencyService.execute("key-1", OPERATION, request, Transaction.class, () -> {
+                    userRepository.save(new User(null, username + "@example.com", username, "hash"));
+                    // another instance takes the key over while this request is still running
+                    join(executor.submit(() -> jdbcTemplate.update(
+                            "update idempotency_record set claim_token = ? where id = ?", "other", id("key-1"))));
+                    return post(request);
+                }));
+
+        assertFalse(userRepository.existsByUsername(username));
+        assertFalse(state("key-1").completed());
+    }
+
+    private void assertCoalesced(IdempotencyService duplicateService) throws Exception {
+        Transaction request = request(10_000);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<ResponseEntity<Transaction>> first = executor.submit(() ->
+                idempotencyService.execute("key-1", OPERATION, request, Transaction.class, () -> {
+                    running.countDown();
+                    await(release);
+                    return post(request);
+                }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        Future<ResponseEntity<Transaction>> duplicate = executor.submit(() ->
+                duplicateService.execute("key-1", OPERATION, request, Transaction.class, () -> post(request)));
+        release.countDown();
+
+        assertEquals(first.get(5, TimeUnit.SECONDS).getBody().getId(),
+                duplicate.get(5, TimeUnit.SECONDS).getBody().getId());
+        assertEquals(1, executions.get());
+    }
+
+    private IdempotencyService newInstance() {
+        return new IdempotencyService(repository, authorizationContext, new ObjectMapper().findAndRegisterModules(),
+                transactionManager, Duration.ofHours(1), 100, Duration.ofHours(1), Duration.ofMillis(10));
+    }
+
+    private void claimedElsewhere(String key, LocalDateTime expiresAt) {
+        jdbcTemplate.update("insert into idempotency_record (id, fingerprint, claim_token, expires_at) values (?, ?, ?, ?)",
+                id(key), "another request", "other", expiresAt);
+    }
+
+    private IdempotencyRecordState state(String key) {
+        return repository.findState(id(key)).orElseThrow();
+    }
+
+    private String id(String key) {
+        return userId + ":" + key;
+    }
+
+    private ResponseEntity<Transaction> post(Transaction request) {
+        executions.incrementAndGet();
+        return ResponseEntity.ok(new Transaction(UUID.randomUUID(), request.getType(), request.getAmount(),
+                LocalDateTime.now(), null));
+    }
+
+    private static Transaction request(long amount) {
+        Transaction request = new Transaction();
+        request.setType(TransactionType.DEPOSIT);
+        request.setAmount(amount);
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void join(Future<?> future) {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.exception.IdempotencyConflictException;
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.BatchPostingRequest;
+import com.bclay.eaglebank_api.model.BatchPostingResponse;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionResponse;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.TransferRequest;
+import com.bclay.eaglebank_api.model.TransferResponse;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"eaglebank.transactions.journal.enabled=true", "eaglebank.ledger.snapshot.settle-lag=0s"})
+@DirtiesContext
+class JournaledPostingServiceTest {
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("eaglebank-journal").toString();
+        registry.add("eaglebank.transactions.journal.directory", () -> directory);
+    }
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BankAccountService bankAccountService;
+
+    @Autowired
+    private JournaledPostingService journaledPostingService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private String username;
+    private User owner;
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        username = "journal-" + suffix;
+        owner = userRepository.save(new User(null, username + "@example.com", username, "hash"));
+        accountId = bankAccountRepository.save(new BankAccount(null, suffix, "CURRENT", 1_000L, owner)).getId();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void createTransaction_shouldApplyJournaledPostingsInBackground() throws Exception {
+        Transaction deposit = post(TransactionType.DEPOSIT, 500);
+        Transaction withdrawal = post(TransactionType.WITHDRAWAL, 1_200);
+
+        assertNotNull(deposit.getId());
+        awaitBalance(300);
+        assertTrue(transactionRepository.findByIdAndBankAccountId(deposit.getId(), accountId).isPresent());
+        assertTrue(transactionRepository.findByIdAndBankAccountId(withdrawal.getId(), accountId).isPresent());
+    }
+
+    @Test
+    void createTransaction_shouldCountUnappliedPostingsAgainstBalance() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            attempts.add(executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(username, null, List.of()));
+                try {
+                    post(TransactionType.WITHDRAWAL, 100);
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    assertEquals("Insufficient balance", e.getMessage());
+                    return false;
+                }
+            }));
+        }
+        int accepted = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get(30, TimeUnit.SECONDS)) {
+                accepted++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(10, accepted);
+        awaitBalance(0);
+        assertEquals(10, transactionRepository.findByBankAccountId(accountId).size());
+    }
+
+    @Test
+    void snapshot_shouldNotMoveWatermarkPastUnappliedPostings() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = holdAccountRow(release);
+
+        Transaction deposit = post(TransactionType.DEPOSIT, 500);
+        assertEquals(deposit.getTimestamp(), journaledPostingService.oldestUnapplied().orElseThrow());
+        // an account opened afterwards posts its opening deposit directly, stamped after the journaled one
+        UUID later = bankAccountService.createAccount(
+                new BankAccount(null, "later-" + UUID.randomUUID(), "CURRENT", 200L, owner)).getId();
+
+        assertEquals(0, ledgerService.snapshot(later).orElseThrow().getEntryCount());
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        awaitBalance(1_500);
+        assertTrue(journaledPostingService.oldestUnapplied().isEmpty());
+        assertEquals(1, ledgerService.snapshot(later).orElseThrow().getEntryCount());
+        assertEquals(1, ledgerService.snapshot(accountId).orElseThrow().getEntryCount());
+    }
+
+    @Test
+    void postBatch_shouldCountUnappliedPostingsAgainstBalance() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = holdAccountRow(release);
+        post(TransactionType.WITHDRAWAL, 800);
+
+        Future<BatchPostingResponse> batch = executor.submit(() -> {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(username, null, List.of()));
+            return transactionService.postBatch(new BatchPostingRequest(BatchPostingRequest.Mode.ATOMIC,
+                    List.of(new BatchPostingRequest.Item(accountId, TransactionType.WITHDRAWAL, 500))));
+        });
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+
+        BatchPostingResponse response = batch.get(30, TimeUnit.SECONDS);
+        assertFalse(response.applied());
+        assertEquals("Insufficient balance", response.results().get(0).message());
+        awaitBalance(200);
+    }
+
+    @Test
+    void transfer_shouldCountUnappliedPostingsAgainstBalance() throws Exception {
+        UUID destination = bankAccountRepository.save(
+                new BankAccount(null, "dest-" + UUID.randomUUID(), "CURRENT", 0L, owner)).getId();
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = holdAccountRow(release);
+        post(TransactionType.WITHDRAWAL, 800);
+
+        Future<TransferResponse> transfer = executor.submit(() -> {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(username, null, List.of()));
+            return transactionService.transfer(accountId, new TransferRequest(destination, 500));
+        });
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> transfer.get(30, TimeUnit.SECONDS));
+        assertEquals("Insufficient balance", e.getCause().getMessage());
+        awaitBalance(200);
+        assertEquals(0L, bankAccountRepository.findBalanceById(destination).orElseThrow());
+    }
+
+    @Test
+    void idempotentPosting_shouldCommitWithItsKeyInsteadOfBeingJournaled() {
+        Transaction request = request(TransactionType.WITHDRAWAL, 300);
+
+        ResponseEntity<TransactionResponse> first = postIdempotently("key-1", request, () -> { });
+        // written in the request's transaction, so it is in the database as soon as the response is
+        assertEquals(700L, bankAccountRepository.findBalanceById(accountId).orElseThrow());
+        assertTrue(transactionRepository.findByIdAndBankAccountId(first.getBody().id(), accountId).isPresent());
+
+        ResponseEntity<TransactionResponse> retry = postIdempotently("key-1", request, () -> fail("ran again"));
+        assertEquals(first.getBody().id(), retry.getBody().id());
+        assertEquals(700L, bankAccountRepository.findBalanceById(accountId).orElseThrow());
+    }
+
+    @Test
+    void idempotentPosting_whenClaimIsTakenOver_shouldNotBeApplied() throws Exception {
+        Transaction request = request(TransactionType.WITHDRAWAL, 300);
+
+        assertThrows(IdempotencyConflictException.class, () -> postIdempotently("key-1", request, () -> {
+            // another instance takes the key over while this request is still running
+            join(executor.submit(() -> jdbcTemplate.update(
+                    "update idempotency_record set claim_token = ? where id = ?", "other", owner.getId() + ":key-1")));
+        }));
+
+        assertTrue(journaledPostingService.oldestUnapplied().isEmpty());
+        assertEquals(1_000L, bankAccountRepository.findBalanceById(accountId).orElseThrow());
+        assertTrue(transactionRepository.findByBankAccountId(accountId).isEmpty());
+    }
+
+    private ResponseEntity<TransactionResponse> postIdempotently(String key, Transaction request, Runnable afterPosting) {
+        return idempotencyService.execute(key, "POST /v1/accounts/" + accountId + "/transactions", request,
+                TransactionResponse.class, () -> {
+                    Transaction posted = transactionService.createTransaction(accountId, request);
+                    afterPosting.run();
+                    return ResponseEntity.ok(TransactionResponse.of(posted));
+                });
+    }
+
+    // holding the account row keeps the applier from writing its postings, as during a database outage
+    private Future<?> holdAccountRow(CountDownLatch release) throws InterruptedException {
+        CountDownLatch locked = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bankAccountRepository.lockById(accountId);
+            locked.countDown();
+            await(release);
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        return holder;
+    }
+
+    private Transaction post(TransactionType type, long amount) {
+        return transactionService.createTransaction(accountId, request(type, amount));
+    }
+
+    private static Transaction request(TransactionType type, long amount) {
+        Transaction request = new Transaction();
+        request.setType(type);
+        request.setAmount(amount);
+        return request;
+    }
+
+    private static void join(Future<?> future) {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitBalance(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        long balance;
+        while ((balance = bankAccountRepository.findBalanceById(accountId).orElseThrow()) != expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, balance);
+    }
+}
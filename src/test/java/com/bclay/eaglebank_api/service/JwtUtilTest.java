@@ -0,0 +1,111 @@
+package com.bclay.eaglebank_api.service;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+    private TokenRevocationService tokenRevocationService;
+    private final AuthenticatedUser user = new AuthenticatedUser(UUID.randomUUID(), "testuser", "",
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationService(1000);
+        jwtUtil = new JwtUtil(100, Duration.ofMinutes(15), tokenRevocationService);
+    }
+
+    @Test
+    void verifyToken_shouldReturnClaimsForValidToken() {
+        String token = jwtUtil.generateToken(user);
+
+        Optional<Claims> claims = jwtUtil.verifyToken(token);
+
+        assertTrue(claims.isPresent());
+        assertEquals("testuser", claims.get().getSubject());
+    }
+
+    @Test
+    void verifyToken_shouldServeRepeatedVerificationsFromCache() {
+        String token = jwtUtil.generateToken(user);
+
+        jwtUtil.verifyToken(token);
+        jwtUtil.verifyToken(token);
+        jwtUtil.extractUsername(token);
+
+        assertEquals(2, jwtUtil.verifiedTokenCacheStats().hitCount());
+    }
+
+    @Test
+    void verifyToken_shouldRejectTamperedToken() {
+        String token = jwtUtil.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(jwtUtil.verifyToken(tampered).isEmpty());
+        assertFalse(jwtUtil.validateToken(tampered));
+    }
+
+    @Test
+    void verifyToken_shouldRejectTokenFromAnotherKey() {
+        String foreignToken = new JwtUtil(100, Duration.ofMinutes(15), tokenRevocationService).generateToken(user);
+
+        assertTrue(jwtUtil.verifyToken(foreignToken).isEmpty());
+    }
+
+    @Test
+    void authenticate_shouldRebuildPrincipalFromClaims() {
+        String token = jwtUtil.generateToken(user);
+
+        Optional<AuthenticatedUser> principal = jwtUtil.authenticate(token);
+
+        assertTrue(principal.isPresent());
+        assertEquals(user.getId(), principal.get().getId());
+        assertEquals("testuser", principal.get().getUsername());
+        assertEquals(user.getAuthorities(), principal.get().getAuthorities());
+    }
+
+    @Test
+    void authenticate_shouldRejectLoggedOutToken() {
+        String token = jwtUtil.generateToken(user);
+        String otherToken = jwtUtil.generateToken(user);
+
+        jwtUtil.revokeToken(token);
+
+        assertTrue(jwtUtil.authenticate(token).isEmpty());
+        assertTrue(jwtUtil.authenticate(otherToken).isPresent());
+    }
+
+    @Test
+    void authenticate_whenDenyListIsFull_shouldKeepRejectingLoggedOutTokens() {
+        TokenRevocationService smallDenyList = new TokenRevocationService(1);
+        JwtUtil jwtUtil = new JwtUtil(100, Duration.ofMinutes(15), smallDenyList);
+        List<String> loggedOut = List.of(jwtUtil.generateToken(user), jwtUtil.generateToken(user),
+                jwtUtil.generateToken(user));
+
+        loggedOut.forEach(jwtUtil::revokeToken);
+
+        // the deny-list holds one token; whichever were evicted revoked all of the user's tokens instead
+        loggedOut.forEach(token -> assertTrue(jwtUtil.authenticate(token).isEmpty()));
+        assertTrue(jwtUtil.authenticate(jwtUtil.generateToken(user)).isPresent());
+    }
+
+    @Test
+    void authenticate_shouldRejectTokensIssuedBeforeUserRevocation() {
+        String token = jwtUtil.generateToken(user);
+
+        tokenRevocationService.revokeAllForUser(user.getId());
+
+        assertTrue(jwtUtil.authenticate(token).isEmpty());
+        assertTrue(jwtUtil.authenticate(jwtUtil.generateToken(user)).isPresent());
+    }
+}
@@ -0,0 +1,60 @@
+package com.bclay.eaglebank_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final LoginRateLimiter limiter = new LoginRateLimiter(3, 5, Duration.ofSeconds(10), 1000, now::get);
+
+    @Test
+    void tryAcquire_shouldAllowBurstUpToUsernameCapacity() {
+        assertTrue(limiter.tryAcquire("alice", "203.0.113.7"));
+        assertTrue(limiter.tryAcquire("alice", "203.0.113.7"));
+        assertTrue(limiter.tryAcquire("alice", "203.0.113.7"));
+        assertFalse(limiter.tryAcquire("alice", "203.0.113.7"));
+    }
+
+    @Test
+    void tryAcquire_shouldRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice", "203.0.113.7");
+        }
+        assertFalse(limiter.tryAcquire("alice", "203.0.113.7"));
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(limiter.tryAcquire("alice", "203.0.113.7"));
+        assertFalse(limiter.tryAcquire("alice", "203.0.113.7"));
+    }
+
+    @Test
+    void tryAcquire_shouldLimitAddressAcrossUsernames() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("user-" + i, "203.0.113.7"));
+        }
+
+        assertFalse(limiter.tryAcquire("someone-else", "203.0.113.7"));
+        assertTrue(limiter.tryAcquire("someone-else", "198.51.100.1"));
+    }
+
+    @Test
+    void tryAcquire_rejectedByAddress_shouldNotSpendUsernameTokens() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("user-" + i, "203.0.113.7");
+        }
+        for (int i = 0; i < 10; i++) {
+            assertFalse(limiter.tryAcquire("alice", "203.0.113.7"));
+        }
+
+        // the attacker's throttled address never touched alice's bucket
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("alice", "198.51.100.1"));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.exception.TooManyRequestsException;
+import com.bclay.eaglebank_api.model.AuthRequest;
+import com.bclay.eaglebank_api.model.AuthResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LoginServiceTest {
+
+    @Mock
+    private AuthenticationManager authManager;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private LoginRateLimiter rateLimiter;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private LoginService loginService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        loginService = new LoginService(authManager, jwtUtil, rateLimiter, new ApiMetrics(registry), registry, 1, 1);
+        when(rateLimiter.tryAcquire(any(), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginService.destroy();
+    }
+
+    @Test
+    void login_shouldVerifyOnLoginPoolAndIssueToken() throws Exception {
+        AuthenticatedUser principal = new AuthenticatedUser(UUID.randomUUID(), "testuser", "",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        when(authManager.authenticate(any())).thenAnswer(invocation -> {
+            assertTrue(Thread.currentThread().getName().startsWith("login-"));
+            return authentication;
+        });
+        when(jwtUtil.generateToken(principal)).thenReturn("jwt-token");
+
+        AuthResponse response = loginService.login(new AuthRequest("testuser", "testpass"), "203.0.113.7")
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals("jwt-token", response.token());
+    }
+
+    @Test
+    void login_shouldRejectRateLimitedAttemptBeforeHashing() {
+        when(rateLimiter.tryAcquire("testuser", "203.0.113.7")).thenReturn(false);
+
+        assertThrows(TooManyRequestsException.class,
+                () -> loginService.login(new AuthRequest("testuser", "testpass"), "203.0.113.7"));
+        verifyNoInteractions(authManager);
+        assertEquals(1, registry.get("eaglebank.login.rejected").tag("reason", "rate_limited").counter().count());
+    }
+
+    @Test
+    void login_shouldRejectWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(authManager.authenticate(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("not reached in assertions");
+        });
+        AuthRequest request = new AuthRequest("testuser", "testpass");
+
+        CompletableFuture<AuthResponse> running = loginService.login(request, "203.0.113.7");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<AuthResponse> queued = loginService.login(request, "203.0.113.7");
+
+        assertEquals(1.0, registry.get("eaglebank.login.queue.size").gauge().value());
+        assertThrows(TooManyRequestsException.class, () -> loginService.login(request, "203.0.113.7"));
+        assertEquals(1, registry.get("eaglebank.login.rejected").tag("reason", "queue_full").counter().count());
+
+        release.countDown();
+        assertTrue(running.handle((r, e) -> e != null).get(5, TimeUnit.SECONDS));
+        assertTrue(queued.handle((r, e) -> e != null).get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,66 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.service.PrincipalCache.CachedPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private PrincipalCache principalCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(100, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+    }
+
+    private CachedPrincipal load(UUID userId, String username) {
+        loads.incrementAndGet();
+        return new CachedPrincipal(userId, username, "hash");
+    }
+
+    @Test
+    void get_shouldLoadOnceAndServeRepeatedLookupsFromCache() {
+        UUID userId = UUID.randomUUID();
+
+        principalCache.get("testuser", name -> load(userId, name));
+        CachedPrincipal cached = principalCache.get("testuser", name -> load(userId, name));
+
+        assertEquals(userId, cached.userId());
+        assertEquals(1, loads.get());
+        assertEquals(1, principalCache.missCount());
+        assertEquals(1, principalCache.hitCount());
+    }
+
+    @Test
+    void evictUser_shouldDropEntriesForThatUserOnly() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        principalCache.get("testuser", name -> load(userId, name));
+        principalCache.get("otheruser", name -> load(otherUserId, name));
+
+        principalCache.evictUser(userId);
+        principalCache.get("testuser", name -> load(userId, name));
+        principalCache.get("otheruser", name -> load(otherUserId, name));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void evict_shouldForceReloadOnNextLookup() {
+        UUID userId = UUID.randomUUID();
+        principalCache.get("testuser", name -> load(userId, name));
+
+        principalCache.evict("testuser");
+        principalCache.get("testuser", name -> load(userId, name));
+
+        assertEquals(2, loads.get());
+    }
+}
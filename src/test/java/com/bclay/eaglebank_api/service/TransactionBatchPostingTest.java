@@ -0,0 +1,111 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.*;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TransactionBatchPostingTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private UUID first;
+    private UUID second;
+    private UUID foreign;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        User owner = userRepository.save(new User(null, "batch-" + suffix + "@example.com", "batch-" + suffix, "hash"));
+        User stranger = userRepository.save(new User(null, "other-" + suffix + "@example.com", "other-" + suffix, "hash"));
+
+        first = bankAccountRepository.save(new BankAccount(null, suffix + "-1", "CURRENT", 10_000L, owner)).getId();
+        second = bankAccountRepository.save(new BankAccount(null, suffix + "-2", "CURRENT", 0L, owner)).getId();
+        foreign = bankAccountRepository.save(new BankAccount(null, suffix + "-3", "CURRENT", 10_000L, stranger)).getId();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner.getUsername(), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static BatchPostingRequest.Item item(UUID accountId, TransactionType type, long amount) {
+        return new BatchPostingRequest.Item(accountId, type, amount);
+    }
+
+    @Test
+    void atomicBatch_shouldApplyPostingsInOrderWithOneNetUpdatePerAccount() {
+        BatchPostingResponse response = transactionService.postBatch(new BatchPostingRequest(BatchPostingRequest.Mode.ATOMIC, List.of(
+                item(first, TransactionType.WITHDRAWAL, 10_000),
+                item(second, TransactionType.DEPOSIT, 2_500),
+                item(first, TransactionType.DEPOSIT, 500),
+                item(second, TransactionType.WITHDRAWAL, 2_500))));
+
+        assertTrue(response.applied());
+        assertTrue(response.results().stream().allMatch(r -> r.status() == BatchPostingResponse.Status.POSTED));
+        assertEquals(500L, bankAccountRepository.findById(first).orElseThrow().getBalance());
+        assertEquals(0L, bankAccountRepository.findById(second).orElseThrow().getBalance());
+        assertEquals(2, transactionRepository.findByBankAccountId(first).size());
+        assertEquals(2, transactionRepository.findByBankAccountId(second).size());
+    }
+
+    @Test
+    void atomicBatch_shouldApplyNothingWhenAnyItemIsRejected() {
+        BatchPostingResponse response = transactionService.postBatch(new BatchPostingRequest(BatchPostingRequest.Mode.ATOMIC, List.of(
+                item(first, TransactionType.DEPOSIT, 1_000),
+                item(second, TransactionType.WITHDRAWAL, 1))));
+
+        assertFalse(response.applied());
+        assertEquals(BatchPostingResponse.Status.NOT_APPLIED, response.results().get(0).status());
+        assertEquals(BatchPostingResponse.Status.REJECTED, response.results().get(1).status());
+        assertEquals("Insufficient balance", response.results().get(1).message());
+        assertEquals(10_000L, bankAccountRepository.findById(first).orElseThrow().getBalance());
+        assertTrue(transactionRepository.findByBankAccountId(first).isEmpty());
+    }
+
+    @Test
+    void bestEffortBatch_shouldApplyValidItemsAndReportTheRest() {
+        BatchPostingResponse response = transactionService.postBatch(new BatchPostingRequest(BatchPostingRequest.Mode.BEST_EFFORT, List.of(
+                item(first, TransactionType.WITHDRAWAL, 4_000),
+                item(foreign, TransactionType.WITHDRAWAL, 1_000),
+                item(first, TransactionType.WITHDRAWAL, 7_000),
+                item(second, TransactionType.DEPOSIT, 0))));
+
+        assertTrue(response.applied());
+        assertEquals(BatchPostingResponse.Status.POSTED, response.results().get(0).status());
+        assertNotNull(response.results().get(0).transactionId());
+        assertEquals("Bank account not found", response.results().get(1).message());
+        assertEquals("Insufficient balance", response.results().get(2).message());
+        assertEquals("Transaction amount must be positive", response.results().get(3).message());
+
+        assertEquals(6_000L, bankAccountRepository.findById(first).orElseThrow().getBalance());
+        assertEquals(10_000L, bankAccountRepository.findById(foreign).orElseThrow().getBalance());
+        assertEquals(1, transactionRepository.findByBankAccountId(first).size());
+    }
+}
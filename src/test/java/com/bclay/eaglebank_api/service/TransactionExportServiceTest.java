@@ -0,0 +1,75 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.*;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TransactionExportServiceTest {
+
+    private static final int ROWS = 2_500;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        User owner = userRepository.save(new User(null, "export-" + suffix + "@example.com", "export-" + suffix, "hash"));
+        BankAccount account = bankAccountRepository.save(new BankAccount(null, suffix, "CURRENT", 0L, owner));
+        accountId = account.getId();
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < ROWS; i++) {
+            transactionRepository.save(new Transaction(null, TransactionType.DEPOSIT, 1_025L, start.plusSeconds(i), account));
+        }
+    }
+
+    @Test
+    void export_shouldWriteOneNdjsonLinePerTransaction() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = transactionExportService.export(accountId, ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ROWS, rows);
+        assertEquals(ROWS, lines.length);
+        assertTrue(lines[0].contains("\"amount\":10.25"));
+        assertTrue(lines[0].contains("\"timestamp\":\"2024-01-01T00:00:00\""));
+    }
+
+    @Test
+    void export_shouldWriteCsvWithHeaderOldestFirst() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        transactionExportService.export(accountId, ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ROWS + 1, lines.length);
+        assertEquals("id,type,amount,timestamp", lines[0]);
+        assertTrue(lines[1].endsWith(",DEPOSIT,10.25,2024-01-01T00:00:00"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.JournalEntry;
+import com.bclay.eaglebank_api.model.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionJournalTest {
+
+    private static final long SEGMENT_SIZE = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private final UUID accountId = UUID.randomUUID();
+    private final List<JournalEntry> durable = new CopyOnWriteArrayList<>();
+    private TransactionJournal journal;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void append_shouldBeRecoveredAfterRestart() throws IOException {
+        open(SEGMENT_SIZE, 0);
+        List<CompletableFuture<JournalEntry>> appended = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            appended.add(append(TransactionType.DEPOSIT, i * 100L));
+        }
+        List<JournalEntry> written = appended.stream().map(CompletableFuture::join).toList();
+        journal.close();
+
+        assertEquals(List.of(1L, 2L, 3L), written.stream().map(JournalEntry::sequence).toList());
+        assertEquals(written, durable);
+
+        assertEquals(written, open(SEGMENT_SIZE, 0));
+        journal.close();
+        assertEquals(written.subList(2, 3), open(SEGMENT_SIZE, 2));
+        assertEquals(4, append(TransactionType.WITHDRAWAL, 50).join().sequence());
+    }
+
+    @Test
+    void recover_shouldCutOffTornTail() throws IOException {
+        open(SEGMENT_SIZE, 0);
+        append(TransactionType.DEPOSIT, 100).join();
+        append(TransactionType.WITHDRAWAL, 40).join();
+        journal.close();
+
+        Path segment = segments().get(0);
+        long intactSize = Files.size(segment);
+        // a record whose write never completed: a header promising more bytes than follow it
+        Files.write(segment, new byte[]{0, 0, 0, 60, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        List<JournalEntry> recovered = open(SEGMENT_SIZE, 0);
+
+        assertEquals(2, recovered.size());
+        assertEquals(intactSize, Files.size(segment));
+        assertEquals(3, append(TransactionType.DEPOSIT, 10).join().sequence());
+    }
+
+    @Test
+    void recover_shouldDropRecordFailingChecksum() throws IOException {
+        open(SEGMENT_SIZE, 0);
+        append(TransactionType.DEPOSIT, 100).join();
+        append(TransactionType.DEPOSIT, 200).join();
+        journal.close();
+
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long lastByte = file.length() - 1;
+            file.seek(lastByte);
+            int original = file.read();
+            file.seek(lastByte);
+            file.write(original ^ 0xFF);
+        }
+
+        List<JournalEntry> recovered = open(SEGMENT_SIZE, 0);
+
+        assertEquals(1, recovered.size());
+        assertEquals(100, recovered.get(0).amount());
+    }
+
+    @Test
+    void release_shouldDeleteSegmentsOnceApplied() throws IOException {
+        // every group rolls over to a new segment
+        open(1, 0);
+        for (int i = 0; i < 3; i++) {
+            append(TransactionType.DEPOSIT, 100).join();
+        }
+        assertEquals(3, segments().size());
+
+        journal.release(1);
+        assertEquals(2, segments().size());
+
+        journal.release(3);
+        assertEquals(1, segments().size(), "the segment being written is kept");
+    }
+
+    private List<JournalEntry> open(long segmentSize, long afterSequence) throws IOException {
+        journal = new TransactionJournal(directory, segmentSize, 16);
+        List<JournalEntry> recovered = journal.recover(afterSequence);
+        journal.start(durable::addAll);
+        return recovered;
+    }
+
+    private CompletableFuture<JournalEntry> append(TransactionType type, long amount) {
+        return journal.append(UUID.randomUUID(), accountId, type, amount, LocalDateTime.now());
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
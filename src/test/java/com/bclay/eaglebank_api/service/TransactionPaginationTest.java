@@ -0,0 +1,103 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.*;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TransactionPaginationTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        User owner = userRepository.save(new User(null, "page-" + suffix + "@example.com", "page-" + suffix, "hash"));
+        BankAccount account = bankAccountRepository.save(new BankAccount(null, suffix, "CURRENT", 0L, owner));
+        accountId = account.getId();
+
+        // seven postings over five distinct timestamps, so ties have to be broken by id
+        int[] minutes = {0, 1, 1, 2, 3, 3, 4};
+        for (int i = 0; i < minutes.length; i++) {
+            TransactionType type = i % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+            transactionRepository.save(new Transaction(null, type, 100L * (i + 1), BASE.plusMinutes(minutes[i]), account));
+        }
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner.getUsername(), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cursorPaging_shouldVisitEveryTransactionOnceNewestFirst() {
+        List<TransactionResponse> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage page = transactionService.getTransactions(accountId, null, null, null, 3, cursor);
+            assertTrue(page.transactions().size() <= 3);
+            seen.addAll(page.transactions());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(7, seen.size());
+        assertEquals(7, new HashSet<>(seen.stream().map(TransactionResponse::id).toList()).size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).timestamp().isAfter(seen.get(i - 1).timestamp()));
+        }
+    }
+
+    @Test
+    void filters_shouldRestrictByTimeRangeAndType() {
+        TransactionPage deposits = transactionService.getTransactions(accountId,
+                BASE.plusMinutes(1), BASE.plusMinutes(4), TransactionType.DEPOSIT, 10, null);
+
+        assertNull(deposits.nextCursor());
+        assertEquals(2, deposits.transactions().size());
+        assertTrue(deposits.transactions().stream().allMatch(t -> t.type() == TransactionType.DEPOSIT));
+    }
+
+    @Test
+    void limit_shouldBeBounded() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getTransactions(accountId, null, null, null, 100_000, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.getTransactions(accountId, null, null, null, null, "not-a-cursor"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers createTransaction from many threads and checks that every accepted posting is reflected
+ * in the final balances and that no rejected posting left a trace.
+ */
+@SpringBootTest
+class TransactionServiceConcurrencyTest {
+
+    private static final int ACCOUNTS = 32;
+    private static final int THREADS = 16;
+    private static final int POSTINGS_PER_THREAD = 250;
+    private static final long INITIAL_BALANCE = 100_000;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private String username;
+    private List<UUID> accountIds;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        username = "stress-" + suffix;
+        User owner = userRepository.save(new User(null, username + "@example.com", username, "hash"));
+
+        accountIds = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            BankAccount account = bankAccountRepository.save(
+                    new BankAccount(null, suffix + "-" + i, "CURRENT", INITIAL_BALANCE, owner));
+            accountIds.add(account.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void concurrentPostings_shouldNeverLoseMoney() throws Exception {
+        Map<UUID, AtomicLong> acceptedNet = new ConcurrentHashMap<>();
+        Map<UUID, AtomicLong> acceptedCount = new ConcurrentHashMap<>();
+        accountIds.forEach(id -> {
+            acceptedNet.put(id, new AtomicLong());
+            acceptedCount.put(id, new AtomicLong());
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(username, null, List.of()));
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                    UUID accountId = accountIds.get(random.nextInt(ACCOUNTS));
+                    TransactionType type = random.nextBoolean() ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+                    long amount = 1 + random.nextInt(20_000);
+
+                    Transaction request = new Transaction();
+                    request.setType(type);
+                    request.setAmount(amount);
+                    try {
+                        transactionService.createTransaction(accountId, request);
+                        acceptedNet.get(accountId).addAndGet(type == TransactionType.DEPOSIT ? amount : -amount);
+                        acceptedCount.get(accountId).incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        assertEquals("Insufficient balance", e.getMessage());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(5, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        long totalAccepted = 0;
+        for (UUID accountId : accountIds) {
+            BankAccount account = bankAccountRepository.findById(accountId).orElseThrow();
+            long expected = INITIAL_BALANCE + acceptedNet.get(accountId).get();
+
+            assertEquals(expected, account.getBalance(), "balance drifted for account " + accountId);
+            assertTrue(account.getBalance() >= 0, "account overdrawn: " + accountId);
+            assertEquals(acceptedCount.get(accountId).get(), transactionRepository.findByBankAccountId(accountId).size(),
+                    "transaction rows do not match accepted postings for account " + accountId);
+            totalAccepted += acceptedCount.get(accountId).get();
+        }
+
+        assertTrue(totalAccepted > (long) THREADS * POSTINGS_PER_THREAD / 4,
+                "too few postings accepted: " + totalAccepted);
+    }
+}
@@ -0,0 +1,166 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.BankAccount;
+import com.bclay.eaglebank_api.model.Transaction;
+import com.bclay.eaglebank_api.model.TransactionType;
+import com.bclay.eaglebank_api.model.TransferRequest;
+import com.bclay.eaglebank_api.model.TransferResponse;
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.BankAccountRepository;
+import com.bclay.eaglebank_api.repository.TransactionRepository;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TransferTest {
+
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 100;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private String suffix;
+    private String username;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString();
+        username = "transfer-" + suffix;
+        owner = userRepository.save(new User(null, username + "@example.com", username, "hash"));
+        authenticate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void transfer_shouldDebitAndCreditTogether() {
+        UUID from = account("from", 10_000L, owner);
+        UUID to = account("to", 500L, owner);
+
+        TransferResponse transfer = transactionService.transfer(from, new TransferRequest(to, 2_500));
+
+        assertEquals(TransactionType.TRANSFER_OUT, transfer.debit().type());
+        assertEquals(TransactionType.TRANSFER_IN, transfer.credit().type());
+        assertEquals(7_500L, balance(from));
+        assertEquals(3_000L, balance(to));
+        assertEquals(1, transactionRepository.findByBankAccountId(from).size());
+        assertEquals(1, transactionRepository.findByBankAccountId(to).size());
+    }
+
+    @Test
+    void transfer_withInsufficientBalance_shouldChangeNothing() {
+        UUID from = account("from", 1_000L, owner);
+        UUID to = account("to", 0L, owner);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> transactionService.transfer(from, new TransferRequest(to, 1_001)));
+
+        assertEquals("Insufficient balance", e.getMessage());
+        assertEquals(1_000L, balance(from));
+        assertEquals(0L, balance(to));
+        assertTrue(transactionRepository.findByBankAccountId(to).isEmpty());
+    }
+
+    @Test
+    void transfer_fromSomeoneElsesAccount_shouldBeDenied() {
+        User stranger = userRepository.save(new User(null, "other-" + suffix + "@example.com", "other-" + suffix, "hash"));
+        UUID from = account("from", 10_000L, stranger);
+        UUID to = account("to", 0L, owner);
+
+        assertThrows(AccessDeniedException.class, () -> transactionService.transfer(from, new TransferRequest(to, 100)));
+        assertEquals(10_000L, balance(from));
+    }
+
+    @Test
+    void transfer_toSameAccount_shouldBeRejected() {
+        UUID account = account("from", 10_000L, owner);
+
+        assertThrows(IllegalArgumentException.class, () -> transactionService.transfer(account, new TransferRequest(account, 100)));
+    }
+
+    @Test
+    void transactionTypes_forTransfers_shouldNotBePostableDirectly() {
+        UUID account = account("from", 0L, owner);
+        Transaction request = new Transaction();
+        request.setType(TransactionType.TRANSFER_IN);
+        request.setAmount(1_000);
+
+        assertThrows(IllegalArgumentException.class, () -> transactionService.createTransaction(account, request));
+        assertEquals(0L, balance(account));
+    }
+
+    @Test
+    void crossTransfers_shouldNeitherDeadlockNorLoseMoney() throws Exception {
+        UUID a = account("a", 1_000_000L, owner);
+        UUID b = account("b", 1_000_000L, owner);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            // half the threads move money one way and half the other, so every pair of transfers contends
+            UUID from = t % 2 == 0 ? a : b;
+            UUID to = t % 2 == 0 ? b : a;
+            workers.add(executor.submit(() -> {
+                authenticate();
+                start.await();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    transactionService.transfer(from, new TransferRequest(to, 1 + ThreadLocalRandom.current().nextInt(100)));
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(2_000_000L, balance(a) + balance(b));
+        // every transfer leaves one posting on each account
+        assertEquals(2L * THREADS * TRANSFERS_PER_THREAD,
+                transactionRepository.findByBankAccountId(a).size() + transactionRepository.findByBankAccountId(b).size());
+    }
+
+    private void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private UUID account(String number, long balance, User user) {
+        return bankAccountRepository.save(new BankAccount(null, number + "-" + suffix, "CURRENT", balance, user)).getId();
+    }
+
+    private long balance(UUID accountId) {
+        return bankAccountRepository.findBalanceById(accountId).orElseThrow();
+    }
+}
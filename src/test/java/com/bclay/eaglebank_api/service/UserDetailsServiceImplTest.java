@@ -0,0 +1,62 @@
+package com.bclay.eaglebank_api.service;
+
+import com.bclay.eaglebank_api.model.User;
+import com.bclay.eaglebank_api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class UserDetailsServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final UUID adminId = UUID.randomUUID();
+    private final UUID scraperId = UUID.randomUUID();
+    private UserDetailsServiceImpl userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userDetailsService = new UserDetailsServiceImpl(userRepository, new PrincipalCache(100, Duration.ofMinutes(5)),
+                Set.of(adminId), Set.of(scraperId));
+    }
+
+    @Test
+    void loadUserByUsername_shouldGrantAdminToConfiguredUserIds() {
+        when(userRepository.findByUsername("ops")).thenReturn(Optional.of(new User(adminId, "ops@example.com", "ops", "hash")));
+
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"), roles(userDetailsService.loadUserByUsername("ops")));
+    }
+
+    @Test
+    void loadUserByUsername_shouldGrantMetricsToConfiguredUserIds() {
+        when(userRepository.findByUsername("prometheus"))
+                .thenReturn(Optional.of(new User(scraperId, "prometheus@example.com", "prometheus", "hash")));
+
+        assertEquals(Set.of("ROLE_USER", "ROLE_METRICS"), roles(userDetailsService.loadUserByUsername("prometheus")));
+    }
+
+    @Test
+    void loadUserByUsername_shouldGrantOnlyUserToEveryoneElse() {
+        when(userRepository.findByUsername("alice"))
+                .thenReturn(Optional.of(new User(UUID.randomUUID(), "alice@example.com", "alice", "hash")));
+
+        assertEquals(Set.of("ROLE_USER"), roles(userDetailsService.loadUserByUsername("alice")));
+    }
+
+    private static Set<String> roles(UserDetails user) {
+        return Set.copyOf(user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+}
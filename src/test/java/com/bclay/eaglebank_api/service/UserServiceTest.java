@@ -1,5 +1,6 @@
 package com.bclay.eaglebank_api.service;
 
+import com.bclay.eaglebank_api.exception.DuplicateUsernameException;
 import com.bclay.eaglebank_api.exception.UserNotFoundException;
 import com.bclay.eaglebank_api.model.User;
 import com.bclay.eaglebank_api.repository.BankAccountRepository;
@@ -7,8 +8,12 @@ import com.bclay.eaglebank_api.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,6 +31,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private UserService userService;
 
@@ -56,6 +67,42 @@ class UserServiceTest {
         verify(userRepository).save(user);
     }
 
+    @Test
+    void createUser_withTakenUsername_shouldThrowWithoutSaving() {
+        User user = new User();
+        user.setUsername("takenuser");
+        user.setPassword("plainpassword");
+
+        when(userRepository.existsByUsername("takenuser")).thenReturn(true);
+
+        assertThrows(DuplicateUsernameException.class, () -> userService.createUser(user));
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void createUser_losingRaceForUsername_shouldThrowDuplicateUsername() {
+        User user = new User();
+        user.setUsername("raceduser");
+        user.setPassword("plainpassword");
+
+        when(userRepository.existsByUsername("raceduser")).thenReturn(false, true);
+        when(userRepository.save(user)).thenThrow(new DataIntegrityViolationException("uk_users_username"));
+
+        assertThrows(DuplicateUsernameException.class, () -> userService.createUser(user));
+    }
+
+    @Test
+    void createUser_withOtherConstraintViolation_shouldRethrow() {
+        User user = new User();
+        user.setUsername("newuser");
+        user.setPassword("plainpassword");
+
+        when(userRepository.existsByUsername("newuser")).thenReturn(false);
+        when(userRepository.save(user)).thenThrow(new DataIntegrityViolationException("uk_users_email"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(user));
+    }
+
     @Test
     void getUserById_shouldReturnUserWhenExists() {
         UUID userId = UUID.randomUUID();
@@ -83,14 +130,63 @@ class UserServiceTest {
     void updateUser_shouldSaveAndReturnUpdatedUser() {
         User user = new User();
         user.setId(UUID.randomUUID());
-        user.setUsername("updateduser");
+        user.setUsername("olduser");
+        User changes = new User();
+        changes.setUsername("updateduser");
 
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
 
-        User result = userService.updateUser(user);
+        User result = userService.updateUser(user, changes);
 
         assertEquals(user.getId(), result.getId());
         assertEquals("updateduser", result.getUsername());
+        verify(principalCache).evict("olduser");
+        verify(principalCache).evictUser(user.getId());
+        verify(tokenRevocationService).revokeAllForUser(user.getId());
+    }
+
+    @Test
+    void updateUser_emailOnly_shouldKeepTokensValid() {
+        TokenRevocationService revocations = new TokenRevocationService(1000);
+        JwtUtil jwtUtil = new JwtUtil(100, Duration.ofMinutes(15), revocations);
+        UserService service = new UserService(userRepository, bankAccountRepository, passwordEncoder, principalCache,
+                revocations);
+        User user = new User(UUID.randomUUID(), "old@example.com", "testuser", "hash");
+        String token = jwtUtil.generateToken(new AuthenticatedUser(user.getId(), user.getUsername(), "",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        User changes = new User();
+        changes.setEmail("new@example.com");
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+
+        User result = service.updateUser(user, changes);
+
+        assertEquals("new@example.com", result.getEmail());
+        assertTrue(jwtUtil.authenticate(token).isPresent());
+    }
+
+    @Test
+    void updateUser_toTakenUsername_shouldThrowDuplicate() {
+        User user = new User(UUID.randomUUID(), "me@example.com", "me", "hash");
+        User changes = new User();
+        changes.setUsername("taken");
+        when(userRepository.existsByUsername("taken")).thenReturn(true);
+
+        assertThrows(DuplicateUsernameException.class, () -> userService.updateUser(user, changes));
+        assertEquals("me", user.getUsername());
+        verify(userRepository, never()).saveAndFlush(any());
+        verify(tokenRevocationService, never()).revokeAllForUser(any());
+    }
+
+    @Test
+    void updateUser_whenUsernameTakenConcurrently_shouldThrowDuplicate() {
+        User user = new User(UUID.randomUUID(), "me@example.com", "me", "hash");
+        User changes = new User();
+        changes.setUsername("taken");
+        when(userRepository.existsByUsername("taken")).thenReturn(false, true);
+        when(userRepository.saveAndFlush(user)).thenThrow(new DataIntegrityViolationException("uk_users_username"));
+
+        assertThrows(DuplicateUsernameException.class, () -> userService.updateUser(user, changes));
+        verify(tokenRevocationService, never()).revokeAllForUser(any());
     }
 
     @Test
@@ -101,6 +197,8 @@ class UserServiceTest {
         userService.deleteUser(userId);
 
         verify(userRepository).deleteById(userId);
+        verify(principalCache).evictUser(userId);
+        verify(tokenRevocationService).revokeAllForUser(userId);
     }
 
     @Test
@@ -109,6 +207,8 @@ class UserServiceTest {
         when(userRepository.existsById(userId)).thenReturn(false);
 
         assertThrows(UserNotFoundException.class, () -> userService.deleteUser(userId));
+        verify(principalCache, never()).evictUser(any());
+        verify(tokenRevocationService, never()).revokeAllForUser(any());
     }
 
     @Test